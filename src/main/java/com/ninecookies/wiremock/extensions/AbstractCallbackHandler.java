@@ -4,6 +4,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.UUID;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -11,6 +12,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.tomakehurst.wiremock.common.Json;
+import com.ninecookies.wiremock.extensions.api.RetryPolicy;
+import com.ninecookies.wiremock.extensions.api.Timeouts;
+import com.ninecookies.wiremock.extensions.util.SimulatedClock;
 
 /**
  * Represents the base class for callback handlers.
@@ -60,22 +64,45 @@ public abstract class AbstractCallbackHandler<T extends CallbackDefinition> impl
         }
     }
 
+    private final String id = UUID.randomUUID().toString();
     private final Class<T> type;
     private final File callbackFile;
     private final ScheduledExecutorService executor;
     private final Logger log;
-    private final int maxRetries;
-    private final int retryBackoff;
     private int invocation;
+    private long previousBackoff;
+    private long firstAttemptAt;
+    private long latency;
+    private String callbackType;
+    private String target;
 
     @Override
     public final void run() {
         boolean cleanup = true;
+        T callback = null;
         try {
-            handle(readCallback());
+            callback = readCallback();
+            if (firstAttemptAt == 0) {
+                firstAttemptAt = SimulatedClock.getInstance().millis();
+            }
+            Bulkhead bulkhead = getBulkhead(callback);
+            if (bulkhead == null) {
+                execute(callback);
+            } else if (bulkhead.tryAcquire()) {
+                try {
+                    execute(callback);
+                } finally {
+                    bulkhead.release();
+                }
+            } else if (bulkhead.offer(this, executor)) {
+                log.debug("bulkhead '{}' exhausted - callback queued", bulkhead.getName());
+                cleanup = false;
+            } else {
+                throw new RetryCallbackException("bulkhead '" + bulkhead.getName() + "' and its queue exhausted");
+            }
         } catch (CallbackException e) {
             if (e instanceof RetryCallbackException) {
-                cleanup = rescheduleIfApplicable();
+                cleanup = rescheduleIfApplicable(callback);
             }
 
             if (cleanup) {
@@ -84,6 +111,8 @@ public abstract class AbstractCallbackHandler<T extends CallbackDefinition> impl
                     retryInfo = " after " + invocation + " attempts";
                 }
                 log.warn("unable to publish '{}' message{}", type.getSimpleName(), retryInfo, e);
+                record(callback, e);
+                deadLetter(callback, e);
             } else {
                 log.info("publishing of {} will be retried", type.getSimpleName(), e);
             }
@@ -105,6 +134,86 @@ public abstract class AbstractCallbackHandler<T extends CallbackDefinition> impl
      */
     protected abstract void handle(T callback) throws CallbackException;
 
+    /**
+     * Gets the {@link Bulkhead} that limits the concurrency for the target of the specified {@code callback}.
+     * <p>
+     * The default implementation returns {@code null} which means that the concurrency is not limited.
+     *
+     * @param callback the callback definition to get the bulkhead for.
+     * @return the {@link Bulkhead} for the callback target or {@code null} if the concurrency is not limited.
+     * @throws CallbackException if the callback target is invalid.
+     */
+    protected Bulkhead getBulkhead(T callback) throws CallbackException {
+        return null;
+    }
+
+    /**
+     * Adds callback type specific details like the trace identifier to the specified {@code result}.
+     * <p>
+     * The default implementation does nothing.
+     *
+     * @param callback the callback definition the result is recorded for.
+     * @param result the {@link CallbackResult} to describe.
+     */
+    protected void describe(T callback, CallbackResult result) {
+    }
+
+    /**
+     * Gets the effective timeouts for the specified {@code callback} that are the callback specific timeouts merged
+     * with the globally configured timeouts.
+     *
+     * @param callback the callback definition to get the timeouts for.
+     * @return the effective {@link Timeouts}.
+     */
+    protected Timeouts getTimeouts(T callback) {
+        Timeouts defaults = CallbackConfiguration.getInstance().getTimeouts();
+        return (callback.timeouts == null) ? defaults : callback.timeouts.withDefaults(defaults);
+    }
+
+    /**
+     * Gets the remaining time in milliseconds until the deadline of the specified {@code timeouts} is reached.
+     * <p>
+     * The deadline is measured with the {@link SimulatedClock} like the due times of the callback attempts, so that
+     * advancing the clock consumes the deadline as well.
+     *
+     * @param timeouts the effective {@link Timeouts} of the callback.
+     * @return the remaining time in milliseconds or {@link Long#MAX_VALUE} if no deadline is specified.
+     */
+    protected long getRemainingTime(Timeouts timeouts) {
+        Long deadline = timeouts.getDeadline();
+        if (deadline == null || deadline <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return firstAttemptAt + deadline - SimulatedClock.getInstance().millis();
+    }
+
+    /**
+     * Gets the unique identifier of this callback handler that stays the same for all attempts.
+     *
+     * @return the identifier.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the type of the handled callback, either one of {@code http}, {@code sns} or {@code sqs}.
+     *
+     * @return the callback type.
+     */
+    public String getCallbackType() {
+        return callbackType;
+    }
+
+    /**
+     * Gets the target of the handled callback, either one of HTTP URL, SNS topic or SQS queue.
+     *
+     * @return the callback target.
+     */
+    public String getTarget() {
+        return target;
+    }
+
     /**
      * Gets the logger to be use by extending classes.
      *
@@ -126,24 +235,142 @@ public abstract class AbstractCallbackHandler<T extends CallbackDefinition> impl
         this.type = type;
         this.callbackFile = callbackFile;
         this.log = LoggerFactory.getLogger(getClass());
-        CallbackConfiguration config = CallbackConfiguration.getInstance();
-        this.maxRetries = config.getMaxRetries();
-        this.retryBackoff = config.getRetryBackoff();
     }
 
-    private boolean rescheduleIfApplicable() {
+    AbstractCallbackHandler<T> withTarget(String callbackType, String target) {
+        this.callbackType = callbackType;
+        this.target = target;
+        return this;
+    }
+
+    /**
+     * Schedules the next attempt of this callback handler and registers it as {@link PendingCallback}.
+     *
+     * @param delay the delay in milliseconds.
+     */
+    void schedule(long delay) {
+        PendingCallbacks.getInstance().schedule(this, executor, delay, invocation + 1);
+    }
+
+    /**
+     * Resumes this callback handler with the specified {@code attempt}, e.g. after it was recovered from the
+     * {@link CallbackStore}.
+     *
+     * @param attempt the attempt to resume with starting with {@code 1}.
+     * @return this callback handler.
+     */
+    AbstractCallbackHandler<T> resume(int attempt) {
+        invocation = Math.max(0, attempt - 1);
+        return this;
+    }
+
+    /**
+     * Cancels this callback handler and removes the persisted callback definition.
+     */
+    void cancel() {
+        log.info("callback '{}' to '{}' cancelled", id, target);
+        deleteCallback();
+    }
+
+    /**
+     * Removes the persisted callback definition once it was handed over to the {@link CallbackStore} or rejected by
+     * the {@link AdmissionControl}.
+     */
+    void dispose() {
+        deleteCallback();
+    }
+
+    /**
+     * Hands this due callback handler over to the specified {@code store} if it can't be executed anymore, e.g.
+     * because it was parked in a {@link Bulkhead} queue when the runtime shut down. If the callback can't be stored it
+     * is added to the {@link DeadLetterStore} instead, so that it can still be replayed.
+     *
+     * @param store the {@link CallbackStore} to hand the callback over to.
+     * @return {@code true} if the callback was stored; {@code false} if it was dead-lettered.
+     */
+    boolean store(CallbackStore store) {
+        String callbackJson = readCallbackJson();
+        boolean result = store.persist(id, callbackType, SimulatedClock.getInstance().millis(), invocation + 1,
+                callbackJson);
+        if (!result) {
+            deadLetter(Json.read(callbackJson, type),
+                    new CallbackException("callback runtime shut down before the callback was executed"));
+        }
+        deleteCallback();
+        return result;
+    }
+
+    private boolean rescheduleIfApplicable(T callback) {
+        RetryPolicy defaults = CallbackConfiguration.getInstance().getRetryPolicy();
+        RetryPolicy policy = (callback.retryPolicy == null) ? defaults : callback.retryPolicy.withDefaults(defaults);
         invocation++;
-        if (executor != null && invocation <= maxRetries) {
-            executor.schedule(this, retryBackoff * invocation, TimeUnit.MILLISECONDS);
+        if (executor != null && invocation <= policy.maxRetries) {
+            long backoff = policy.nextBackoff(invocation, previousBackoff);
+            if (getRemainingTime(getTimeouts(callback)) <= backoff) {
+                log.warn("deadline of callback to '{}' exceeded - cancel retries", callback.target);
+                return true;
+            }
+            previousBackoff = backoff;
+            log.debug("reschedule callback attempt {} with back off {}ms", invocation, previousBackoff);
+            schedule(previousBackoff);
             return false;
         }
         return true;
     }
 
+    private void execute(T callback) throws CallbackException {
+        long start = System.nanoTime();
+        try {
+            handle(callback);
+        } finally {
+            latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+        record(callback, null);
+    }
+
+    private void record(T callback, CallbackException exception) {
+        if (callback == null) {
+            return;
+        }
+        CallbackResult result = new CallbackResult();
+        result.timestamp = SimulatedClock.getInstance().millis();
+        result.type = callback.type;
+        result.target = callback.target;
+        result.success = exception == null;
+        result.latency = latency;
+        result.attempts = (exception instanceof RetryCallbackException) ? invocation : invocation + 1;
+        result.error = (exception == null) ? null : exception.getMessage();
+        describe(callback, result);
+        CallbackResultJournal.getInstance().record(result);
+    }
+
+    private void deadLetter(T callback, CallbackException exception) {
+        if (callback == null) {
+            return;
+        }
+        DeadLetter deadLetter = new DeadLetter();
+        deadLetter.id = UUID.randomUUID().toString();
+        deadLetter.type = callback.type;
+        deadLetter.target = callback.target;
+        deadLetter.failedAt = SimulatedClock.getInstance().millis();
+        deadLetter.attempts = (exception instanceof RetryCallbackException) ? invocation : invocation + 1;
+        deadLetter.error = exception.getMessage();
+        deadLetter.callback = Json.getObjectMapper().valueToTree(callback);
+        DeadLetterStore.getInstance().add(deadLetter);
+    }
+
     private T readCallback() {
+        return Json.read(readCallbackJson(), type);
+    }
+
+    /**
+     * Reads the JSON representation of the persisted callback definition.
+     *
+     * @return the JSON representation of the callback definition.
+     */
+    String readCallbackJson() {
         try {
-            String jsonContent = new String(Files.readAllBytes(callbackFile.toPath()), StandardCharsets.UTF_8);
-            return Json.read(jsonContent, type);
+            return new String(Files.readAllBytes(callbackFile.toPath()), StandardCharsets.UTF_8);
         } catch (IOException e) {
             throw new IllegalStateException("Unable to read callback content from file system", e);
         }
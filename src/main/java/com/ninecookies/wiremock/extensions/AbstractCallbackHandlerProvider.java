@@ -6,7 +6,6 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.StandardOpenOption;
 import java.util.Map;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.BiFunction;
 
 import org.slf4j.Logger;
@@ -27,25 +26,33 @@ import com.ninecookies.wiremock.extensions.util.Objects;
  */
 public abstract class AbstractCallbackHandlerProvider implements CallbackHandlerProvider {
 
+    private final String type;
     private final boolean messagingEnbabled;
     private final Logger log;
-    private final ScheduledExecutorService executor;
-    private final BiFunction<ScheduledExecutorService, File, Runnable> handlerCreator;
+    private final CallbackRuntime runtime;
+    private final BiFunction<CallbackRuntime, File, AbstractCallbackHandler<?>> handlerCreator;
 
     /**
      * Initialize a new instance of the {@link AbstractCallbackHandlerProvider} with the specified arguments.
      *
+     * @param type the type of callbacks this provider creates handlers for.
      * @param handlerCreator the method that creates a callback handler for a certain callback type.
-     * @param executor the {@link ScheduledExecutorService} that runs the created handler.
+     * @param runtime the {@link CallbackRuntime} that runs the created handler.
      */
-    protected AbstractCallbackHandlerProvider(BiFunction<ScheduledExecutorService, File, Runnable> handlerCreator,
-            ScheduledExecutorService executor) {
+    protected AbstractCallbackHandlerProvider(String type,
+            BiFunction<CallbackRuntime, File, AbstractCallbackHandler<?>> handlerCreator, CallbackRuntime runtime) {
+        this.type = type;
         log = LoggerFactory.getLogger(getClass());
         messagingEnbabled = CallbackConfiguration.getInstance().isMessagingEnabled();
-        this.executor = executor;
+        this.runtime = runtime;
         this.handlerCreator = handlerCreator;
     }
 
+    @Override
+    public String getType() {
+        return type;
+    }
+
     /**
      * Gets the logger to be use by extending classes.
      *
@@ -76,30 +83,41 @@ public abstract class AbstractCallbackHandlerProvider implements CallbackHandler
     protected abstract CallbackDefinition convert(Callback callback, Map<String, Object> placeholders, Admin admin);
 
     @Override
-    public Runnable get(Callback callback, Map<String, Object> placeholders, Admin admin) {
+    public AbstractCallbackHandler<?> get(Callback callback, Map<String, Object> placeholders, Admin admin) {
         CallbackDefinition callbackDefinition = convert(callback, placeholders, admin);
+        callbackDefinition.type = type;
+        callbackDefinition.retryPolicy = callback.retryPolicy;
+        callbackDefinition.timeouts = callback.timeouts;
         if ("null".equals(callbackDefinition.target)) {
             getLog().warn("unresolvable callback target '{}' - ignore {} task with delay '{}' and data '{}'",
                     Objects.coalesce(callback.url, Objects.coalesce(callback.queue, callback.topic)),
                     callbackDefinition.getClass().getSimpleName(), callbackDefinition.delay, callbackDefinition.data);
             return null;
         }
-        File callbackDefinitionFile = persistCallback(callbackDefinition);
-        return handlerCreator.apply(executor, callbackDefinitionFile);
+        return create(callbackDefinition.target, Json.write(callbackDefinition));
+    }
+
+    @Override
+    public AbstractCallbackHandler<?> get(String callbackJson) {
+        return create(Json.node(callbackJson).path("target").asText(), callbackJson);
+    }
+
+    private AbstractCallbackHandler<?> create(String target, String callbackJson) {
+        File callbackDefinitionFile = persistCallback(callbackJson);
+        return handlerCreator.apply(runtime, callbackDefinitionFile).withTarget(type, target);
     }
 
     /**
      * Persists the specified {@code callbackDefinition} as temporary file in the file system to be picked up by the
      * scheduled {@link Runnable} callback handler when due to reduce the memory footprint during callback handling.
      *
-     * @param callbackDefinition the {@link Callback} to persist.
+     * @param jsonContent the JSON representation of the {@link CallbackDefinition} to persist.
      * @return the temporary {@link File} containing the normalized callback definition.
      */
-    private File persistCallback(CallbackDefinition callbackDefinition) {
+    private File persistCallback(String jsonContent) {
         try {
             File result = File.createTempFile("callback-json-", ".tmp");
             getLog().debug("callback-json file: {}", result);
-            String jsonContent = Json.write(callbackDefinition);
             getLog().debug("callback-json content: {}", jsonContent);
             Files.write(result.toPath(), jsonContent.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE);
             return result;
@@ -0,0 +1,136 @@
+package com.ninecookies.wiremock.extensions;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ninecookies.wiremock.extensions.util.Metrics;
+
+/**
+ * Implements the admission control for new callbacks that limits the number of pending callbacks globally and per
+ * callback type.
+ * <p>
+ * Once a limit is reached the configured {@link Policy} decides whether a new callback is rejected, admitted at the
+ * expense of the oldest pending callback or handled inline without scheduling.
+ * <p>
+ * The limits are soft limits. A decision is based on the number of pending callbacks at the time of the decision and
+ * does not reserve capacity, so concurrent requests may exceed a limit by the number of callbacks admitted in parallel.
+ *
+ * @author M.Scheepers
+ * @since 0.5.0
+ * @see CallbackConfiguration
+ */
+public class AdmissionControl {
+
+    /**
+     * Defines the policies applied to new callbacks that exceed the pending callback limits.
+     */
+    public enum Policy {
+        /**
+         * The new callback is rejected and logged.
+         */
+        REJECT,
+        /**
+         * The oldest pending callback is cancelled in favor of the new callback.
+         */
+        DROP_OLDEST,
+        /**
+         * The new callback is handled immediately within the request thread applying back pressure to the client.
+         */
+        INLINE
+    }
+
+    /**
+     * Defines the admission decisions for new callbacks.
+     */
+    public enum Decision {
+        /**
+         * The callback is scheduled.
+         */
+        SCHEDULE,
+        /**
+         * The callback is rejected.
+         */
+        REJECT,
+        /**
+         * The callback is handled immediately within the calling thread.
+         */
+        INLINE
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdmissionControl.class);
+    private static final String METRICS_PREFIX = "callback.admission.";
+
+    private static final class InstanceHolder {
+        private static final AdmissionControl INSTANCE = of(CallbackConfiguration.getInstance());
+    }
+
+    private final int maxPending;
+    private final Map<String, Integer> maxPendingPerType;
+    private final Policy policy;
+    private final PendingCallbacks pendingCallbacks;
+
+    // visible for testing
+    AdmissionControl(int maxPending, Map<String, Integer> maxPendingPerType, Policy policy,
+            PendingCallbacks pendingCallbacks) {
+        this.maxPending = maxPending;
+        this.maxPendingPerType = maxPendingPerType;
+        this.policy = policy;
+        this.pendingCallbacks = pendingCallbacks;
+    }
+
+    /**
+     * Decides whether a new callback of the specified {@code type} is admitted.
+     *
+     * @param type the callback type, either one of {@code http}, {@code sns} or {@code sqs}.
+     * @return the admission {@link Decision}.
+     */
+    public Decision admit(String type) {
+        boolean typeExhausted = isExhausted(maxPendingPerType.getOrDefault(type, 0), pendingCallbacks.size(type));
+        if (!typeExhausted && !isExhausted(maxPending, pendingCallbacks.size())) {
+            return Decision.SCHEDULE;
+        }
+        switch (policy) {
+            case DROP_OLDEST:
+                PendingCallback dropped = pendingCallbacks.cancelOldest(typeExhausted ? type : null);
+                if (dropped != null) {
+                    Metrics.increment(METRICS_PREFIX + dropped.type + ".dropped");
+                    LOG.warn("pending callbacks exhausted - dropped oldest callback '{}' to '{}'", dropped.id,
+                            dropped.target);
+                    return Decision.SCHEDULE;
+                }
+                // nothing to drop, e.g. the pending callbacks became due in the meantime
+                Metrics.increment(METRICS_PREFIX + type + ".rejected");
+                LOG.warn("pending callbacks exhausted and none to drop - reject {} callback", type);
+                return Decision.REJECT;
+            case INLINE:
+                Metrics.increment(METRICS_PREFIX + type + ".inlined");
+                LOG.debug("pending callbacks exhausted - handle {} callback inline", type);
+                return Decision.INLINE;
+            case REJECT:
+            default:
+                Metrics.increment(METRICS_PREFIX + type + ".rejected");
+                LOG.warn("pending callbacks exhausted - reject {} callback", type);
+                return Decision.REJECT;
+        }
+    }
+
+    private static boolean isExhausted(int limit, int size) {
+        return limit > 0 && size >= limit;
+    }
+
+    private static AdmissionControl of(CallbackConfiguration config) {
+        return new AdmissionControl(config.getMaxPendingCallbacks(), config.getMaxPendingCallbacksPerType(),
+                config.getAdmissionPolicy(), PendingCallbacks.getInstance());
+    }
+
+    /**
+     * Gets the admission control instance.
+     *
+     * @return the {@link AdmissionControl} instance.
+     */
+    public static AdmissionControl getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+}
@@ -0,0 +1,188 @@
+package com.ninecookies.wiremock.extensions;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.ninecookies.wiremock.extensions.util.Metrics;
+
+/**
+ * Implements a bulkhead that limits the number of concurrently executed callbacks for a single target.
+ * <p>
+ * Due callbacks that exceed the limit are parked in a bounded queue instead of occupying a callback thread and are
+ * dispatched again as soon as one of the in-flight callbacks completed. Callbacks that can't be dispatched because
+ * their executor is shutting down remain parked until they are drained, see {@link #drain(Executor)}.
+ *
+ * @author M.Scheepers
+ * @since 0.5.0
+ * @see CallbackConfiguration
+ */
+public class Bulkhead {
+
+    private static final String METRICS_PREFIX = "callback.bulkhead.";
+    private static final Map<String, Bulkhead> BULKHEADS = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final int maxConcurrency;
+    private final int maxQueueSize;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Deque<Parked> queue = new ConcurrentLinkedDeque<>();
+
+    // visible for testing
+    Bulkhead(String name, int maxConcurrency, int maxQueueSize) {
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+        this.maxQueueSize = maxQueueSize;
+    }
+
+    /**
+     * Gets the name of the target this bulkhead guards.
+     *
+     * @return the name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of callbacks currently executed.
+     *
+     * @return the number of in-flight callbacks.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Gets the number of callbacks waiting for execution.
+     *
+     * @return the number of queued callbacks.
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * Tries to acquire a permit to execute a callback.
+     *
+     * @return {@code true} if the permit was acquired and must be released by {@link #release()}; otherwise
+     *         {@code false}.
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= maxConcurrency) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Releases a permit acquired by {@link #tryAcquire()} and dispatches the next queued callback if any.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+        dispatchNext();
+    }
+
+    /**
+     * Parks the specified {@code callback} until a permit is available.
+     *
+     * @param callback the callback {@link Runnable} to park.
+     * @param executor the {@link Executor} to dispatch the callback to once a permit is available.
+     * @return {@code true} if the callback was queued; {@code false} if the queue is exhausted.
+     */
+    public boolean offer(Runnable callback, Executor executor) {
+        if (queued.incrementAndGet() > maxQueueSize) {
+            queued.decrementAndGet();
+            Metrics.increment(METRICS_PREFIX + name + ".rejected");
+            return false;
+        }
+        queue.add(new Parked(callback, executor));
+        // in-flight callbacks might have completed in the meantime
+        if (inFlight.get() < maxConcurrency) {
+            dispatchNext();
+        }
+        return true;
+    }
+
+    private void dispatchNext() {
+        Parked next = queue.poll();
+        if (next == null) {
+            return;
+        }
+        queued.decrementAndGet();
+        try {
+            next.executor.execute(next.callback);
+        } catch (RejectedExecutionException e) {
+            // the executor is shutting down, keep the callback parked until it is drained
+            queued.incrementAndGet();
+            queue.addFirst(next);
+        }
+    }
+
+    private List<Runnable> remove(Executor executor) {
+        List<Runnable> result = new ArrayList<>();
+        for (Parked parked : queue) {
+            if (parked.executor == executor && queue.remove(parked)) {
+                queued.decrementAndGet();
+                result.add(parked.callback);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes all callbacks parked to be dispatched to the specified {@code executor} from the queues of all
+     * bulkheads, e.g. to store them when the executor shuts down.
+     *
+     * @param executor the {@link Executor} the callbacks were parked for.
+     * @return a {@link List} of the removed callbacks.
+     */
+    public static List<Runnable> drain(Executor executor) {
+        List<Runnable> result = new ArrayList<>();
+        for (Bulkhead bulkhead : BULKHEADS.values()) {
+            result.addAll(bulkhead.remove(executor));
+        }
+        return result;
+    }
+
+    /**
+     * Gets the {@link Bulkhead} for the specified {@code name} and creates it if required.
+     *
+     * @param name the name of the target to guard.
+     * @param maxConcurrency the maximum number of concurrently executed callbacks.
+     * @return the {@link Bulkhead} instance or {@code null} if {@code maxConcurrency} is less than {@code 1}.
+     */
+    public static Bulkhead of(String name, int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            return null;
+        }
+        return BULKHEADS.computeIfAbsent(name, n -> {
+            Bulkhead result = new Bulkhead(n, maxConcurrency,
+                    CallbackConfiguration.getInstance().getBulkheadQueueSize());
+            Metrics.gauge(METRICS_PREFIX + n + ".in-flight", result::getInFlight);
+            Metrics.gauge(METRICS_PREFIX + n + ".queued", result::getQueued);
+            return result;
+        });
+    }
+
+    private static final class Parked {
+        private final Runnable callback;
+        private final Executor executor;
+
+        private Parked(Runnable callback, Executor executor) {
+            this.callback = callback;
+            this.executor = executor;
+        }
+    }
+}
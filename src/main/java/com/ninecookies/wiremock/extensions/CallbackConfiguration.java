@@ -1,5 +1,11 @@
 package com.ninecookies.wiremock.extensions;
 
+import static com.ninecookies.wiremock.extensions.util.Maps.entry;
+import static com.ninecookies.wiremock.extensions.util.Maps.mapOf;
+
+import java.util.Locale;
+import java.util.Map;
+
 import javax.jms.JMSException;
 
 import org.slf4j.Logger;
@@ -14,16 +20,53 @@ import com.amazonaws.services.sns.AmazonSNS;
 import com.amazonaws.services.sns.AmazonSNSClientBuilder;
 import com.amazonaws.services.sqs.AmazonSQS;
 import com.amazonaws.services.sqs.AmazonSQSClientBuilder;
+import com.ninecookies.wiremock.extensions.AdmissionControl.Policy;
+import com.ninecookies.wiremock.extensions.api.RetryPolicy;
+import com.ninecookies.wiremock.extensions.api.RetryPolicy.Jitter;
+import com.ninecookies.wiremock.extensions.api.RetryPolicy.Strategy;
+import com.ninecookies.wiremock.extensions.api.Timeouts;
+import com.ninecookies.wiremock.extensions.util.Environment;
 import com.ninecookies.wiremock.extensions.util.Strings;
 
 /**
  * Implements the environment configuration for the callback processing.
  * <p>
+ * The configuration properties are read from the {@link Environment} snapshot, so they can be specified as
+ * environment variables or as system properties prefixed with {@code env.}.
+ * <p>
  * Read configuration properties
  * <ul>
  * <li>{@code SCHEDULED_THREAD_POOL_SIZE} default 50
  * <li>{@code RETRY_BACKOFF} default 5_000
  * <li>{@code MAX_RETRIES} default 0 (means disabled)
+ * <li>{@code RETRY_STRATEGY} one of {@code FIXED}, {@code LINEAR} or {@code EXPONENTIAL} (default {@code LINEAR})
+ * <li>{@code RETRY_JITTER} one of {@code NONE}, {@code FULL} or {@code DECORRELATED} (default {@code NONE})
+ * <li>{@code RETRY_MAX_BACKOFF} default 0 (means no cap)
+ * <li>{@code HTTP_CONNECT_TIMEOUT} default 3_000
+ * <li>{@code HTTP_SOCKET_TIMEOUT} default 2_000
+ * <li>{@code HTTP_REQUEST_TIMEOUT} timeout to obtain a pooled connection (default 5_000)
+ * <li>{@code CALLBACK_DEADLINE} overall time including all retries (default 0 means no deadline)
+ * <li>{@code CIRCUIT_BREAKER_FAILURE_THRESHOLD} consecutive HTTP callback failures per host that open the circuit
+ * (default 0 means disabled)
+ * <li>{@code CIRCUIT_BREAKER_OPEN_DURATION} default 30_000
+ * <li>{@code HTTP_MAX_CONCURRENCY_PER_HOST} default 0 (means unlimited)
+ * <li>{@code SQS_MAX_CONCURRENCY_PER_QUEUE} default 0 (means unlimited)
+ * <li>{@code SNS_MAX_CONCURRENCY_PER_TOPIC} default 0 (means unlimited)
+ * <li>{@code BULKHEAD_QUEUE_SIZE} default 1_000
+ * <li>{@code RESULT_REPORT_QUEUE_SIZE} maximum number of pending callback result reports (default 10_000)
+ * <li>{@code RESULT_JOURNAL_CAPACITY} maximum number of callback results kept (default 100_000, 0 means disabled)
+ * <li>{@code MAX_PENDING_CALLBACKS} maximum number of pending callbacks (default 0 means unlimited)
+ * <li>{@code MAX_PENDING_HTTP_CALLBACKS}, {@code MAX_PENDING_SNS_CALLBACKS} and {@code MAX_PENDING_SQS_CALLBACKS}
+ * maximum number of pending callbacks per type (default 0 means unlimited)
+ * <li>{@code ADMISSION_POLICY} one of {@code REJECT}, {@code DROP_OLDEST} or {@code INLINE} applied to new callbacks
+ * exceeding the pending callback limits (default {@code REJECT})
+ * <li>{@code SHUTDOWN_DRAIN_TIMEOUT} time to wait for in-flight callbacks on shutdown (default 10_000)
+ * <li>{@code CALLBACK_STORE_DIR} the directory to store pending callbacks on shutdown for recovery (default empty
+ * means pending callbacks are dropped on shutdown)
+ * <li>{@code DEAD_LETTER_CAPACITY} default 1_000 (0 means disabled)
+ * <li>{@code DEAD_LETTER_FILE} the file to persist dead letters to (default empty means in-memory only)
+ * <li>{@code PATTERN_MATCH_TIMEOUT} evaluation budget of request time matcher patterns (default 100, 0 means
+ * unlimited)
  * <li>{@code AWS_REGION} the AWS region for SQS messaging (default empty means SQS messaging disabled).
  * <li>{@code AWS_SQS_ENDPOINT} the SQS endpoint to use for testing with localstack (default empty means
  * AWS messaging is used).
@@ -36,20 +79,57 @@ import com.ninecookies.wiremock.extensions.util.Strings;
  */
 public class CallbackConfiguration {
     private static final Logger LOG = LoggerFactory.getLogger(CallbackConfiguration.class);
-    private static final int MIN_CORE_POOL_SIZE = 50;
+    static final int MIN_CORE_POOL_SIZE = 50;
     private static final int DEFAULT_CORE_POOL_SIZE = 50;
     private static final int DEFAULT_RETRY_BACKOFF = 5_000;
     private static final int DEFAULT_MAX_RETRIES = 0;
+    private static final int DEFAULT_RETRY_MAX_BACKOFF = 0;
+    private static final int DEFAULT_HTTP_CONNECT_TIMEOUT = 3_000;
+    private static final int DEFAULT_HTTP_SOCKET_TIMEOUT = 2_000;
+    private static final int DEFAULT_HTTP_REQUEST_TIMEOUT = 5_000;
+    private static final int DEFAULT_CALLBACK_DEADLINE = 0;
+    private static final int DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD = 0;
+    private static final int DEFAULT_CIRCUIT_BREAKER_OPEN_DURATION = 30_000;
+    private static final int DEFAULT_MAX_CONCURRENCY = 0;
+    private static final int DEFAULT_BULKHEAD_QUEUE_SIZE = 1_000;
+    private static final int DEFAULT_RESULT_REPORT_QUEUE_SIZE = 10_000;
+    private static final int DEFAULT_RESULT_JOURNAL_CAPACITY = 100_000;
+    private static final int DEFAULT_MAX_PENDING_CALLBACKS = 0;
+    private static final int DEFAULT_SHUTDOWN_DRAIN_TIMEOUT = 10_000;
+    private static final int DEFAULT_DEAD_LETTER_CAPACITY = 1_000;
+    private static final int DEFAULT_PATTERN_MATCH_TIMEOUT = 100;
 
-    private static CallbackConfiguration instance;
+    private static final class InstanceHolder {
+        private static final CallbackConfiguration INSTANCE = new CallbackConfiguration();
+    }
 
-    private int corePoolSize;
+    private volatile int corePoolSize;
     private int retryBackoff;
     private int maxRetries;
+    private volatile RetryPolicy retryPolicy;
+    private volatile Timeouts timeouts;
+    private int circuitBreakerFailureThreshold;
+    private int circuitBreakerOpenDuration;
+    private int httpMaxConcurrency;
+    private int sqsMaxConcurrency;
+    private int snsMaxConcurrency;
+    private int bulkheadQueueSize;
+    private int resultReportQueueSize;
+    private int resultJournalCapacity;
+    private int maxPendingCallbacks;
+    private Map<String, Integer> maxPendingCallbacksPerType;
+    private Policy admissionPolicy;
+    private int shutdownDrainTimeout;
+    private String callbackStoreDirectory;
+    private int deadLetterCapacity;
+    private String deadLetterFile;
+    private int patternMatchTimeout;
     private String region;
     private AmazonSQSClientBuilder sqsClientBuilder;
     private AmazonSNSClientBuilder snsClientBuilder;
-    private SQSConnectionFactory connectionFactory;
+    private volatile AmazonSQS sqsClient;
+    private volatile AmazonSNS snsClient;
+    private volatile SQSConnectionFactory connectionFactory;
 
     private CallbackConfiguration() {
         corePoolSize = parseEnvironmentSetting("SCHEDULED_THREAD_POOL_SIZE", DEFAULT_CORE_POOL_SIZE);
@@ -59,12 +139,45 @@ public class CallbackConfiguration {
         }
         retryBackoff = parseEnvironmentSetting("RETRY_BACKOFF", DEFAULT_RETRY_BACKOFF);
         maxRetries = parseEnvironmentSetting("MAX_RETRIES", DEFAULT_MAX_RETRIES);
-        region = System.getenv("AWS_REGION");
+        retryPolicy = RetryPolicy.of(
+                parseEnvironmentSetting("RETRY_STRATEGY", Strategy.LINEAR),
+                parseEnvironmentSetting("RETRY_JITTER", Jitter.NONE),
+                maxRetries, retryBackoff,
+                parseEnvironmentSetting("RETRY_MAX_BACKOFF", DEFAULT_RETRY_MAX_BACKOFF));
+        timeouts = Timeouts.of(
+                parseEnvironmentSetting("HTTP_CONNECT_TIMEOUT", DEFAULT_HTTP_CONNECT_TIMEOUT),
+                parseEnvironmentSetting("HTTP_SOCKET_TIMEOUT", DEFAULT_HTTP_SOCKET_TIMEOUT),
+                parseEnvironmentSetting("HTTP_REQUEST_TIMEOUT", DEFAULT_HTTP_REQUEST_TIMEOUT),
+                (long) parseEnvironmentSetting("CALLBACK_DEADLINE", DEFAULT_CALLBACK_DEADLINE));
+        circuitBreakerFailureThreshold = parseEnvironmentSetting("CIRCUIT_BREAKER_FAILURE_THRESHOLD",
+                DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD);
+        circuitBreakerOpenDuration = parseEnvironmentSetting("CIRCUIT_BREAKER_OPEN_DURATION",
+                DEFAULT_CIRCUIT_BREAKER_OPEN_DURATION);
+        httpMaxConcurrency = parseEnvironmentSetting("HTTP_MAX_CONCURRENCY_PER_HOST", DEFAULT_MAX_CONCURRENCY);
+        sqsMaxConcurrency = parseEnvironmentSetting("SQS_MAX_CONCURRENCY_PER_QUEUE", DEFAULT_MAX_CONCURRENCY);
+        snsMaxConcurrency = parseEnvironmentSetting("SNS_MAX_CONCURRENCY_PER_TOPIC", DEFAULT_MAX_CONCURRENCY);
+        bulkheadQueueSize = parseEnvironmentSetting("BULKHEAD_QUEUE_SIZE", DEFAULT_BULKHEAD_QUEUE_SIZE);
+        resultReportQueueSize = parseEnvironmentSetting("RESULT_REPORT_QUEUE_SIZE",
+                DEFAULT_RESULT_REPORT_QUEUE_SIZE);
+        resultJournalCapacity = parseEnvironmentSetting("RESULT_JOURNAL_CAPACITY",
+                DEFAULT_RESULT_JOURNAL_CAPACITY);
+        maxPendingCallbacks = parseEnvironmentSetting("MAX_PENDING_CALLBACKS", DEFAULT_MAX_PENDING_CALLBACKS);
+        maxPendingCallbacksPerType = mapOf(
+                entry("http", parseEnvironmentSetting("MAX_PENDING_HTTP_CALLBACKS", DEFAULT_MAX_PENDING_CALLBACKS)),
+                entry("sns", parseEnvironmentSetting("MAX_PENDING_SNS_CALLBACKS", DEFAULT_MAX_PENDING_CALLBACKS)),
+                entry("sqs", parseEnvironmentSetting("MAX_PENDING_SQS_CALLBACKS", DEFAULT_MAX_PENDING_CALLBACKS)));
+        admissionPolicy = parseEnvironmentSetting("ADMISSION_POLICY", Policy.REJECT);
+        shutdownDrainTimeout = parseEnvironmentSetting("SHUTDOWN_DRAIN_TIMEOUT", DEFAULT_SHUTDOWN_DRAIN_TIMEOUT);
+        callbackStoreDirectory = Environment.getInstance().get("CALLBACK_STORE_DIR");
+        deadLetterCapacity = parseEnvironmentSetting("DEAD_LETTER_CAPACITY", DEFAULT_DEAD_LETTER_CAPACITY);
+        deadLetterFile = Environment.getInstance().get("DEAD_LETTER_FILE");
+        patternMatchTimeout = parseEnvironmentSetting("PATTERN_MATCH_TIMEOUT", DEFAULT_PATTERN_MATCH_TIMEOUT);
+        region = Environment.getInstance().get("AWS_REGION");
 
         if (!Strings.isNullOrEmpty(region)) {
             sqsClientBuilder = AmazonSQSClientBuilder.standard()
                     .withCredentials(new DefaultAWSCredentialsProviderChain());
-            String sqsEndpoint = System.getenv("AWS_SQS_ENDPOINT");
+            String sqsEndpoint = Environment.getInstance().get("AWS_SQS_ENDPOINT");
             if (Strings.isNullOrEmpty(sqsEndpoint)) {
                 LOG.debug("amazonSQS with region '{}'", region);
                 sqsClientBuilder.withRegion(region);
@@ -75,7 +188,7 @@ public class CallbackConfiguration {
 
             snsClientBuilder = AmazonSNSClientBuilder.standard()
                     .withCredentials(new DefaultAWSCredentialsProviderChain());
-            String snsEndpoint = System.getenv("AWS_SNS_ENDPOINT");
+            String snsEndpoint = Environment.getInstance().get("AWS_SNS_ENDPOINT");
             if (Strings.isNullOrEmpty(snsEndpoint)) {
                 LOG.debug("amazonSNS with region '{}'", region);
                 snsClientBuilder.withRegion(region);
@@ -93,7 +206,7 @@ public class CallbackConfiguration {
     private int parseEnvironmentSetting(String name, int defaultValue) {
         int result = defaultValue;
         try {
-            String poolSizeEnv = System.getenv(name);
+            String poolSizeEnv = Environment.getInstance().get(name);
             if (poolSizeEnv != null) {
                 result = Integer.parseInt(poolSizeEnv);
             }
@@ -103,6 +216,19 @@ public class CallbackConfiguration {
         return result;
     }
 
+    private <E extends Enum<E>> E parseEnvironmentSetting(String name, E defaultValue) {
+        E result = defaultValue;
+        try {
+            String value = Environment.getInstance().get(name);
+            if (!Strings.isNullOrEmpty(value)) {
+                result = Enum.valueOf(defaultValue.getDeclaringClass(), value.trim().toUpperCase(Locale.ROOT));
+            }
+        } catch (Exception e) {
+            LOG.error("unable to read environment variable '{}'", name, e);
+        }
+        return result;
+    }
+
     /**
      * Gets the corePoolSize.
      *
@@ -112,6 +238,15 @@ public class CallbackConfiguration {
         return corePoolSize;
     }
 
+    /**
+     * Sets the corePoolSize, e.g. to tune the thread pool at runtime.
+     *
+     * @param corePoolSize the corePoolSize, not less than the minimum of 50.
+     */
+    void setCorePoolSize(int corePoolSize) {
+        this.corePoolSize = corePoolSize;
+    }
+
     /**
      * Gets the retryBackoff.
      *
@@ -130,6 +265,187 @@ public class CallbackConfiguration {
         return maxRetries;
     }
 
+    /**
+     * Gets the global retry policy that applies to all callbacks not specifying their own retry policy.
+     *
+     * @return the global {@link RetryPolicy}.
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Replaces the global retry policy, e.g. to tune the retry behavior at runtime.
+     *
+     * @param retryPolicy the new global {@link RetryPolicy} with all properties specified.
+     */
+    void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Gets the global timeouts that apply to all callbacks not specifying their own timeouts.
+     *
+     * @return the global {@link Timeouts}.
+     */
+    public Timeouts getTimeouts() {
+        return timeouts;
+    }
+
+    /**
+     * Replaces the global timeouts, e.g. to tune the timeouts at runtime.
+     *
+     * @param timeouts the new global {@link Timeouts} with all properties specified.
+     */
+    void setTimeouts(Timeouts timeouts) {
+        this.timeouts = timeouts;
+    }
+
+    /**
+     * Gets the number of consecutive failures that open the circuit of an HTTP callback target.
+     *
+     * @return the failure threshold ({@code 0} means circuit breaking is disabled).
+     */
+    public int getCircuitBreakerFailureThreshold() {
+        return circuitBreakerFailureThreshold;
+    }
+
+    /**
+     * Gets the period of time in milliseconds an opened circuit stays open before a probe callback is permitted.
+     *
+     * @return the open duration.
+     */
+    public int getCircuitBreakerOpenDuration() {
+        return circuitBreakerOpenDuration;
+    }
+
+    /**
+     * Gets the maximum number of concurrently executed HTTP callbacks per target host.
+     *
+     * @return the maximum concurrency ({@code 0} means unlimited).
+     */
+    public int getHttpMaxConcurrency() {
+        return httpMaxConcurrency;
+    }
+
+    /**
+     * Gets the maximum number of concurrently executed SQS callbacks per queue.
+     *
+     * @return the maximum concurrency ({@code 0} means unlimited).
+     */
+    public int getSqsMaxConcurrency() {
+        return sqsMaxConcurrency;
+    }
+
+    /**
+     * Gets the maximum number of concurrently executed SNS callbacks per topic.
+     *
+     * @return the maximum concurrency ({@code 0} means unlimited).
+     */
+    public int getSnsMaxConcurrency() {
+        return snsMaxConcurrency;
+    }
+
+    /**
+     * Gets the maximum number of due callbacks per target waiting for execution.
+     *
+     * @return the bulkhead queue size.
+     */
+    public int getBulkheadQueueSize() {
+        return bulkheadQueueSize;
+    }
+
+    /**
+     * Gets the maximum number of callback result reports waiting to be sent.
+     *
+     * @return the result report queue size.
+     */
+    public int getResultReportQueueSize() {
+        return resultReportQueueSize;
+    }
+
+    /**
+     * Gets the maximum number of callback results kept by the {@link CallbackResultJournal}.
+     *
+     * @return the result journal capacity ({@code 0} means callback results are not recorded).
+     */
+    public int getResultJournalCapacity() {
+        return resultJournalCapacity;
+    }
+
+    /**
+     * Gets the maximum number of pending callbacks.
+     *
+     * @return the maximum number of pending callbacks ({@code 0} means unlimited).
+     */
+    public int getMaxPendingCallbacks() {
+        return maxPendingCallbacks;
+    }
+
+    /**
+     * Gets the maximum number of pending callbacks per callback type.
+     *
+     * @return a {@link Map} of callback types and their maximum number of pending callbacks ({@code 0} means
+     *         unlimited).
+     */
+    public Map<String, Integer> getMaxPendingCallbacksPerType() {
+        return maxPendingCallbacksPerType;
+    }
+
+    /**
+     * Gets the policy applied to new callbacks exceeding the pending callback limits.
+     *
+     * @return the admission {@link Policy}.
+     */
+    public Policy getAdmissionPolicy() {
+        return admissionPolicy;
+    }
+
+    /**
+     * Gets the time in milliseconds to wait for in-flight callbacks on shutdown.
+     *
+     * @return the shutdown drain timeout.
+     */
+    public int getShutdownDrainTimeout() {
+        return shutdownDrainTimeout;
+    }
+
+    /**
+     * Gets the path of the directory to store pending callbacks on shutdown.
+     *
+     * @return the callback store directory or {@code null} if pending callbacks are dropped on shutdown.
+     */
+    public String getCallbackStoreDirectory() {
+        return callbackStoreDirectory;
+    }
+
+    /**
+     * Gets the maximum number of dead letters kept by the {@link DeadLetterStore}.
+     *
+     * @return the dead letter capacity ({@code 0} means dead letters are not captured).
+     */
+    public int getDeadLetterCapacity() {
+        return deadLetterCapacity;
+    }
+
+    /**
+     * Gets the path of the file to persist dead letters to.
+     *
+     * @return the dead letter file path or {@code null} if dead letters are kept in memory only.
+     */
+    public String getDeadLetterFile() {
+        return deadLetterFile;
+    }
+
+    /**
+     * Gets the time in milliseconds a request time matcher pattern may take to evaluate before it is aborted.
+     *
+     * @return the pattern match timeout ({@code 0} means unlimited).
+     */
+    public int getPatternMatchTimeout() {
+        return patternMatchTimeout;
+    }
+
     /**
      * Indicates whether SNS/SQS messaging is enabled.
      *
@@ -142,8 +458,9 @@ public class CallbackConfiguration {
     /**
      * Creates a new Amazon SNS client instance.
      *
-     * @return a new {@link AmazonSNS} ready to use or {@code null} if {@link #isSnsMessagingEnabled()} is
+     * @return a new {@link AmazonSNS} ready to use or {@code null} if {@link #isMessagingEnabled()} is
      *         {@code false}.
+     * @see #getSnsClient()
      */
     public AmazonSNS createSnsClient() {
         if (!isMessagingEnabled()) {
@@ -152,11 +469,30 @@ public class CallbackConfiguration {
         return snsClientBuilder.build();
     }
 
+    /**
+     * Gets the shared Amazon SNS client instance and creates it on first use.
+     *
+     * @return the shared {@link AmazonSNS} or {@code null} if {@link #isMessagingEnabled()} is {@code false}.
+     */
+    public AmazonSNS getSnsClient() {
+        AmazonSNS result = snsClient;
+        if (result == null && isMessagingEnabled()) {
+            synchronized (this) {
+                result = snsClient;
+                if (result == null) {
+                    result = snsClient = createSnsClient();
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * Creates a new Amazon SQS client instance.
      *
-     * @return a new {@link AmazonSQS} ready to use or {@code null} if {@link #isSnsMessagingEnabled()} is
+     * @return a new {@link AmazonSQS} ready to use or {@code null} if {@link #isMessagingEnabled()} is
      *         {@code false}.
+     * @see #getSqsClient()
      */
     public AmazonSQS createSqsClient() {
         if (!isMessagingEnabled()) {
@@ -166,7 +502,25 @@ public class CallbackConfiguration {
     }
 
     /**
-     * Creates a new connection factory instance.
+     * Gets the shared Amazon SQS client instance and creates it on first use.
+     *
+     * @return the shared {@link AmazonSQS} or {@code null} if {@link #isMessagingEnabled()} is {@code false}.
+     */
+    public AmazonSQS getSqsClient() {
+        AmazonSQS result = sqsClient;
+        if (result == null && isMessagingEnabled()) {
+            synchronized (this) {
+                result = sqsClient;
+                if (result == null) {
+                    result = sqsClient = createSqsClient();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates a new connection factory instance based on the shared Amazon SQS client.
      *
      * @return a new {@link SQSConnectionFactory} ready to use or {@code null} if {@link #isMessagingEnabled()} is
      *         {@code false}.
@@ -175,11 +529,14 @@ public class CallbackConfiguration {
         if (!isMessagingEnabled()) {
             return null;
         }
-        return new SQSConnectionFactory(new ProviderConfiguration(), sqsClientBuilder.build());
+        return new SQSConnectionFactory(new ProviderConfiguration(), getSqsClient());
     }
 
     /**
      * Creates a new SQS connection ready to use.
+     * <p>
+     * All connections are created by the same connection factory and share the same Amazon SQS client, so creating
+     * a connection doesn't involve credential resolution or setting up a new client.
      *
      * @return a new {@link SQSConnection} ready to use or {@code null} if {@link #isMessagingEnabled()} is
      *         {@code false}.
@@ -189,15 +546,16 @@ public class CallbackConfiguration {
         if (!isMessagingEnabled()) {
             return null;
         }
-        if (connectionFactory == null) {
-            Object lock = new Object();
-            synchronized (lock) {
-                if (connectionFactory == null) {
-                    connectionFactory = createConnectionFactory();
+        SQSConnectionFactory result = connectionFactory;
+        if (result == null) {
+            synchronized (this) {
+                result = connectionFactory;
+                if (result == null) {
+                    result = connectionFactory = createConnectionFactory();
                 }
             }
         }
-        return connectionFactory.createConnection();
+        return result.createConnection();
     }
 
     /**
@@ -206,14 +564,6 @@ public class CallbackConfiguration {
      * @return the {@link CallbackConfiguration} instance.
      */
     public static CallbackConfiguration getInstance() {
-        if (instance == null) {
-            Object lock = new Object();
-            synchronized (lock) {
-                if (instance == null) {
-                    instance = new CallbackConfiguration();
-                }
-            }
-        }
-        return instance;
+        return InstanceHolder.INSTANCE;
     }
 }
@@ -1,5 +1,8 @@
 package com.ninecookies.wiremock.extensions;
 
+import com.ninecookies.wiremock.extensions.api.RetryPolicy;
+import com.ninecookies.wiremock.extensions.api.Timeouts;
+
 /**
  * Represents the base class for all callback definitions.
  */
@@ -8,6 +11,10 @@ public class CallbackDefinition {
      * The period of time in milliseconds to wait before the callback {@link #data} is sent.
      */
     public long delay;
+    /**
+     * The type of the callback, either one of {@code http}, {@code sns} or {@code sqs}.
+     */
+    public String type;
     /**
      * The object representing arbitrary callback data.
      */
@@ -16,4 +23,12 @@ public class CallbackDefinition {
      * The callback target, either one of HTTP URL, SNS topic or SQS queue.
      */
     public String target;
+    /**
+     * The callback specific retry policy or {@code null} if the global retry policy applies.
+     */
+    public RetryPolicy retryPolicy;
+    /**
+     * The callback specific timeouts or {@code null} if the global timeouts apply.
+     */
+    public Timeouts timeouts;
 }
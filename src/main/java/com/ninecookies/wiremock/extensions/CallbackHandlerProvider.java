@@ -13,6 +13,13 @@ import com.ninecookies.wiremock.extensions.api.Callback;
  */
 public interface CallbackHandlerProvider {
 
+    /**
+     * Gets the type of callbacks this callback handler provider creates handlers for.
+     *
+     * @return the callback type, e.g. {@code http}.
+     */
+    String getType();
+
     /**
      * Indicates whether this callback handler provider is able to handle the specified {@link Callback}.
      *
@@ -22,7 +29,7 @@ public interface CallbackHandlerProvider {
     boolean supports(Callback callback);
 
     /**
-     * Creates a new instance of a callback handler {@link Runnable} according to the required callback channel.
+     * Creates a new instance of a callback handler according to the required callback channel.
      *
      * @param callback the public API {@link Callback} model information.
      * @param placeholders the context for placeholder substitution.
@@ -30,5 +37,14 @@ public interface CallbackHandlerProvider {
      * @return the callback handler implementation according to the {@link Callback} or {@code null} if the callback
      *         target (URL, queue, topic) resolution contains a placeholder or keyword that resolved to {@code "null"}.
      */
-    Runnable get(Callback callback, Map<String, Object> placeholders, Admin admin);
+    AbstractCallbackHandler<?> get(Callback callback, Map<String, Object> placeholders, Admin admin);
+
+    /**
+     * Creates a new instance of a callback handler for an already converted callback definition,
+     * e.g. to replay a dead letter.
+     *
+     * @param callbackJson the JSON representation of the {@link CallbackDefinition} to handle.
+     * @return the callback handler implementation for the callback definition.
+     */
+    AbstractCallbackHandler<?> get(String callbackJson);
 }
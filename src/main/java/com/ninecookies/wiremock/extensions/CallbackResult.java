@@ -0,0 +1,53 @@
+package com.ninecookies.wiremock.extensions;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Represents the result of a callback recorded by the {@link CallbackResultJournal}.
+ *
+ * @author M.Scheepers
+ * @since 0.5.0
+ */
+public class CallbackResult {
+    /**
+     * The journal sequence number used to detect overwritten entries.
+     */
+    @JsonIgnore
+    long sequence;
+    /**
+     * The epoch milliseconds when the callback completed.
+     */
+    public long timestamp;
+    /**
+     * The type of the callback, either one of {@code http}, {@code sns} or {@code sqs}.
+     */
+    public String type;
+    /**
+     * The callback target, either one of HTTP URL, SNS topic or SQS queue.
+     */
+    public String target;
+    /**
+     * Indicates whether the callback succeeded.
+     */
+    public boolean success;
+    /**
+     * The HTTP response status or {@code null} for messaging callbacks or if no response was received.
+     */
+    public Integer status;
+    /**
+     * The duration of the last attempt in milliseconds.
+     */
+    public long latency;
+    /**
+     * The number of attempts that were performed.
+     */
+    public int attempts;
+    /**
+     * The trace identifier of HTTP callbacks.
+     */
+    public String traceId;
+    /**
+     * The error message of the last attempt if the callback failed.
+     */
+    public String error;
+}
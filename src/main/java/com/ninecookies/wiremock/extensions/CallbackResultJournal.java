@@ -0,0 +1,135 @@
+package com.ninecookies.wiremock.extensions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+import com.ninecookies.wiremock.extensions.util.Metrics;
+
+/**
+ * Implements a bounded journal of callback results.
+ * <p>
+ * The journal is a lock-free ring buffer that keeps the latest results up to the configured capacity and overwrites
+ * the oldest results afterwards. In contrast to the WireMock request journal it doesn't retain request bodies and thus
+ * has a fixed memory footprint regardless of the number of callbacks performed.
+ *
+ * @author M.Scheepers
+ * @since 0.5.0
+ * @see CallbackConfiguration
+ */
+public class CallbackResultJournal {
+
+    private static final String METRICS_PREFIX = "callback.results.";
+
+    private static final class InstanceHolder {
+        private static final CallbackResultJournal INSTANCE = new CallbackResultJournal(
+                CallbackConfiguration.getInstance().getResultJournalCapacity());
+
+        static {
+            Metrics.gauge(METRICS_PREFIX + "size", INSTANCE::size);
+        }
+    }
+
+    private final int capacity;
+    private final AtomicReferenceArray<CallbackResult> slots;
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile long clearedBefore;
+
+    // visible for testing
+    CallbackResultJournal(int capacity) {
+        this.capacity = Math.max(0, capacity);
+        this.slots = new AtomicReferenceArray<>(this.capacity);
+    }
+
+    /**
+     * Records the specified {@code result} and overwrites the oldest result if the capacity is exhausted.
+     *
+     * @param result the {@link CallbackResult} to record.
+     */
+    public void record(CallbackResult result) {
+        if (capacity == 0) {
+            return;
+        }
+        long next = sequence.getAndIncrement();
+        result.sequence = next;
+        slots.set((int) (next % capacity), result);
+        Metrics.increment(METRICS_PREFIX + (result.success ? "success" : "failure"));
+    }
+
+    /**
+     * Gets the latest results matching the specified {@code filter} in the order they were recorded.
+     *
+     * @param filter the {@link Predicate} to filter the results.
+     * @param limit the maximum number of results to return.
+     * @return a {@link List} of matching {@link CallbackResult}s.
+     */
+    public List<CallbackResult> find(Predicate<CallbackResult> filter, int limit) {
+        List<CallbackResult> result = new ArrayList<>();
+        long end = sequence.get();
+        for (long current = end - 1; current >= start(end) && result.size() < limit; current--) {
+            CallbackResult entry = entryOf(current);
+            if (entry != null && filter.test(entry)) {
+                result.add(entry);
+            }
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Counts the results matching the specified {@code filter}.
+     *
+     * @param filter the {@link Predicate} to filter the results.
+     * @return the number of matching results.
+     */
+    public int count(Predicate<CallbackResult> filter) {
+        int result = 0;
+        long end = sequence.get();
+        for (long current = start(end); current < end; current++) {
+            CallbackResult entry = entryOf(current);
+            if (entry != null && filter.test(entry)) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of results in this journal.
+     *
+     * @return the number of results.
+     */
+    public int size() {
+        long end = sequence.get();
+        return (int) (end - start(end));
+    }
+
+    /**
+     * Removes all results from this journal.
+     */
+    public void clear() {
+        clearedBefore = sequence.get();
+    }
+
+    private long start(long end) {
+        return Math.max(Math.max(0, end - capacity), clearedBefore);
+    }
+
+    private CallbackResult entryOf(long position) {
+        CallbackResult result = slots.get((int) (position % capacity));
+        // the slot might be overwritten or not yet written by a concurrent writer
+        return (result != null && result.sequence == position) ? result : null;
+    }
+
+    /**
+     * Gets the callback result journal instance.
+     *
+     * @return the {@link CallbackResultJournal} instance.
+     */
+    public static CallbackResultJournal getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+}
@@ -0,0 +1,179 @@
+package com.ninecookies.wiremock.extensions;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ninecookies.wiremock.extensions.api.Timeouts;
+import com.ninecookies.wiremock.extensions.util.Metrics;
+
+/**
+ * Implements the asynchronous reporting of callback results to the WireMock request journal.
+ * <p>
+ * Reports are queued by the callback handlers and sent to {@code /callback/result} by a few daemon threads, each with
+ * its own keep-alive connection, so that callback threads don't wait for the report round trip. Each result is still
+ * posted as a separate request to keep the journal based verification of callback results intact. Reports exceeding
+ * the queue are dropped and counted, a warning is logged at most every 10 seconds.
+ * <p>
+ * The reporter belongs to the {@link CallbackRuntime}, which drains the remaining reports and closes the reporter when
+ * it shuts down, see {@link #shutdown(long)}.
+ *
+ * @author M.Scheepers
+ * @since 0.5.0
+ * @see CallbackConfiguration
+ */
+public class CallbackResultReporter implements Runnable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CallbackResultReporter.class);
+    private static final String METRICS_PREFIX = "callback.result-reports.";
+    private static final int SENDER_THREADS = 4;
+    private static final long POLL_INTERVAL = 100;
+    private static final long WARN_INTERVAL = 10_000;
+
+    private static final class Report {
+        private final int port;
+        private final String body;
+
+        private Report(int port, String body) {
+            this.port = port;
+            this.body = body;
+        }
+    }
+
+    private final BlockingQueue<Report> queue;
+    private final CloseableHttpClient client;
+    private final List<Thread> threads = new ArrayList<>(SENDER_THREADS);
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong lastWarning = new AtomicLong(-WARN_INTERVAL);
+    private volatile boolean running = true;
+
+    // visible for testing
+    CallbackResultReporter(int queueSize) {
+        queue = new LinkedBlockingQueue<>(queueSize);
+        Timeouts timeouts = CallbackConfiguration.getInstance().getTimeouts();
+        client = HttpClientBuilder.create()
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(timeouts.getConnectTimeout())
+                        .setSocketTimeout(timeouts.getSocketTimeout())
+                        .setConnectionRequestTimeout(timeouts.getRequestTimeout())
+                        .build())
+                .setMaxConnTotal(SENDER_THREADS)
+                .setMaxConnPerRoute(SENDER_THREADS)
+                .build();
+        Metrics.gauge(METRICS_PREFIX + "queued", queue::size);
+        for (int i = 1; i <= SENDER_THREADS; i++) {
+            Thread thread = new Thread(this, "callback-result-reporter-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+        }
+    }
+
+    /**
+     * Starts the threads sending the queued reports.
+     *
+     * @return this reporter.
+     */
+    CallbackResultReporter start() {
+        threads.forEach(Thread::start);
+        return this;
+    }
+
+    /**
+     * Stops accepting new reports, sends the queued reports within the specified {@code timeout} and closes the HTTP
+     * client of this reporter.
+     *
+     * @param timeout the time in milliseconds to wait for the queued reports to be sent.
+     */
+    void shutdown(long timeout) {
+        running = false;
+        long deadline = System.currentTimeMillis() + timeout;
+        try {
+            for (Thread thread : threads) {
+                thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (threads.stream().anyMatch(Thread::isAlive)) {
+            threads.forEach(Thread::interrupt);
+            LOG.warn("{} queued result reports dropped after shutdown timeout", queue.size());
+        }
+        try {
+            client.close();
+        } catch (IOException e) {
+            LOG.warn("unable to close result report HTTP client", e);
+        }
+    }
+
+    /**
+     * Queues the specified result report {@code body} to be sent to the WireMock instance listening on the specified
+     * {@code port}.
+     *
+     * @param port the port of the local WireMock instance.
+     * @param body the JSON result report.
+     * @return {@code true} if the report was queued; {@code false} if the report queue is exhausted.
+     */
+    public boolean report(int port, String body) {
+        if (running && queue.offer(new Report(port, body))) {
+            return true;
+        }
+        Metrics.increment(METRICS_PREFIX + "dropped");
+        dropped.incrementAndGet();
+        LOG.debug("result report queue exhausted or shut down - drop report {}", body);
+        // don't flood the log if the queue is exhausted under load
+        long now = System.currentTimeMillis();
+        long last = lastWarning.get();
+        if (now - last >= WARN_INTERVAL && lastWarning.compareAndSet(last, now)) {
+            LOG.warn("result report queue exhausted or shut down - {} reports dropped", dropped.getAndSet(0));
+        }
+        return false;
+    }
+
+    @Override
+    public void run() {
+        // keep sending until shut down and all queued reports are sent
+        while ((running || !queue.isEmpty()) && !Thread.currentThread().isInterrupted()) {
+            try {
+                Report next = queue.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+                if (next != null) {
+                    send(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void send(Report report) {
+        String url = String.format("http://localhost:%s/callback/result", report.port);
+        try {
+            HttpPost post = new HttpPost(url);
+            post.setEntity(new StringEntity(report.body, ContentType.APPLICATION_JSON));
+            HttpResponse response = client.execute(post);
+            // consume the entity to return the connection to the pool
+            EntityUtils.consumeQuietly(response.getEntity());
+            Metrics.increment(METRICS_PREFIX + "sent");
+            LOG.debug("report post \n{}\n\tto '{}' succeeded: response: {}",
+                    report.body, url, response.getStatusLine());
+        } catch (IOException | RuntimeException e) {
+            // a failed report must not stop the reporter thread
+            Metrics.increment(METRICS_PREFIX + "failed");
+            LOG.error("unable to record callback result {}", report.body, e);
+        }
+    }
+}
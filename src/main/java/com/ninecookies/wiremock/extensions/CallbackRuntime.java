@@ -0,0 +1,314 @@
+package com.ninecookies.wiremock.extensions;
+
+import java.io.IOException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ninecookies.wiremock.extensions.api.RetryPolicy;
+import com.ninecookies.wiremock.extensions.api.Timeouts;
+
+/**
+ * Implements the runtime resources shared by all {@link CallbackSimulator} instances of a JVM.
+ * <p>
+ * The runtime consists of the {@link ScheduledExecutorService} running the callbacks, the pooled HTTP client used for
+ * HTTP callbacks, the {@link CallbackResultReporter} and the SNS message publisher. It is reference counted so that
+ * multiple WireMock servers within the same JVM share a single thread pool and connection pool. The runtime is created
+ * by the first {@link #acquire()} and shut down gracefully once the last reference is released, see
+ * {@link #release()}. While it is in use a JVM shutdown hook ensures that it is shut down gracefully on JVM exit as
+ * well.
+ * <p>
+ * The size of the thread pool and the connection pool as well as the global retry policy and timeouts can be tuned
+ * while the runtime is in use, see {@link #update(CallbackSettings)}.
+ *
+ * @author M.Scheepers
+ * @since 0.5.0
+ * @see CallbackConfiguration
+ */
+public class CallbackRuntime {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CallbackRuntime.class);
+    private static final long IDLE_CONNECTION_TIMEOUT = 30_000;
+
+    private static CallbackRuntime shared;
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final CallbackResultReporter resultReporter;
+    private final CallbackStore store;
+    private final Thread shutdownHook = new Thread(this::shutdown, "callback-runtime-shutdown");
+    private final AtomicBoolean shutDown = new AtomicBoolean();
+    private SnsMessagePublisher snsPublisher;
+    private int references;
+
+    // visible for testing
+    CallbackRuntime(CallbackStore store) {
+        this.store = store;
+        int corePoolSize = CallbackConfiguration.getInstance().getCorePoolSize();
+        executor = new ScheduledThreadPoolExecutor(corePoolSize, new DaemonThreadFactory());
+        // there are never more concurrent HTTP callbacks than callback threads
+        connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(corePoolSize);
+        connectionManager.setDefaultMaxPerRoute(corePoolSize);
+        httpClient = HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .evictIdleConnections(IDLE_CONNECTION_TIMEOUT, TimeUnit.MILLISECONDS)
+                .build();
+        resultReporter = new CallbackResultReporter(
+                CallbackConfiguration.getInstance().getResultReportQueueSize()).start();
+        LOG.info("created callback runtime with {} threads", corePoolSize);
+    }
+
+    /**
+     * Acquires a reference to the shared callback runtime and creates it if necessary.
+     *
+     * @return the shared {@link CallbackRuntime}.
+     */
+    public static synchronized CallbackRuntime acquire() {
+        if (shared == null) {
+            shared = new CallbackRuntime(CallbackStore.getInstance());
+            Runtime.getRuntime().addShutdownHook(shared.shutdownHook);
+        }
+        shared.references++;
+        return shared;
+    }
+
+    /**
+     * Releases a reference to this callback runtime.
+     * <p>
+     * Once the last reference is released, pending callbacks that are not yet due are handed over to the
+     * {@link CallbackStore} and in-flight callbacks are given the configured drain timeout to complete before the
+     * resources of this runtime are closed.
+     *
+     * @return {@code true} if the last reference was released and this runtime is shut down; otherwise {@code false}.
+     */
+    public boolean release() {
+        synchronized (CallbackRuntime.class) {
+            if (references == 0 || --references > 0) {
+                return false;
+            }
+            if (shared == this) {
+                shared = null;
+            }
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // the JVM is shutting down and the hook is running or about to run
+        }
+        shutdown();
+        return true;
+    }
+
+    /**
+     * Shuts this runtime down once, either on release of the last reference or by the JVM shutdown hook.
+     */
+    // visible for testing
+    void shutdown() {
+        if (!shutDown.compareAndSet(false, true)) {
+            return;
+        }
+        int stored = PendingCallbacks.getInstance().store(p -> p.executor == executor, store);
+        long drainTimeout = CallbackConfiguration.getInstance().getShutdownDrainTimeout();
+        LOG.info("shutting down - stored {} pending callbacks - draining in-flight callbacks for {}ms",
+                stored, drainTimeout);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(drainTimeout, TimeUnit.MILLISECONDS)) {
+                LOG.warn("{} in-flight callbacks aborted after drain timeout", executor.shutdownNow().size());
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        // callbacks parked in bulkhead queues can't be dispatched to the terminated executor anymore
+        int parked = 0;
+        int deadLettered = 0;
+        for (Runnable callback : Bulkhead.drain(executor)) {
+            if (!(callback instanceof AbstractCallbackHandler)) {
+                continue;
+            }
+            if (((AbstractCallbackHandler<?>) callback).store(store)) {
+                parked++;
+            } else {
+                deadLettered++;
+            }
+        }
+        if (parked + deadLettered > 0) {
+            LOG.info("stored {} and dead-lettered {} callbacks parked in bulkhead queues", parked, deadLettered);
+        }
+        // results of the drained callbacks are still queued
+        resultReporter.shutdown(drainTimeout);
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            LOG.warn("unable to close HTTP client", e);
+        }
+    }
+
+    /**
+     * Gets the current settings of this runtime.
+     *
+     * @return the current {@link CallbackSettings}.
+     */
+    public CallbackSettings getSettings() {
+        CallbackConfiguration config = CallbackConfiguration.getInstance();
+        CallbackSettings result = new CallbackSettings();
+        result.corePoolSize = executor.getCorePoolSize();
+        result.httpMaxConnections = connectionManager.getMaxTotal();
+        result.httpMaxConnectionsPerHost = connectionManager.getDefaultMaxPerRoute();
+        result.retryPolicy = config.getRetryPolicy();
+        result.timeouts = config.getTimeouts();
+        return result;
+    }
+
+    /**
+     * Applies the specified {@code settings} to this runtime and the {@link CallbackConfiguration}.
+     * <p>
+     * Resizing the thread pool and the connection pool takes effect immediately, while changed retry policies and
+     * timeouts apply to the next attempt of pending callbacks. Unspecified properties remain unchanged. The thread pool
+     * size must not be less than the minimum of 50 threads.
+     *
+     * @param settings the {@link CallbackSettings} to apply.
+     * @return the updated {@link CallbackSettings}.
+     * @throws IllegalArgumentException if any of the specified settings is invalid.
+     */
+    public synchronized CallbackSettings update(CallbackSettings settings) {
+        validate(settings);
+        CallbackConfiguration config = CallbackConfiguration.getInstance();
+        if (settings.corePoolSize != null) {
+            config.setCorePoolSize(settings.corePoolSize);
+            executor.setCorePoolSize(settings.corePoolSize);
+        }
+        if (settings.httpMaxConnections != null) {
+            connectionManager.setMaxTotal(settings.httpMaxConnections);
+        }
+        if (settings.httpMaxConnectionsPerHost != null) {
+            connectionManager.setDefaultMaxPerRoute(settings.httpMaxConnectionsPerHost);
+        }
+        if (settings.retryPolicy != null) {
+            config.setRetryPolicy(settings.retryPolicy.withDefaults(config.getRetryPolicy()));
+        }
+        if (settings.timeouts != null) {
+            config.setTimeouts(settings.timeouts.withDefaults(config.getTimeouts()));
+        }
+        CallbackSettings result = getSettings();
+        LOG.info("updated callback runtime - pool size {} - max connections {} ({} per host) - retry {} {}x {}ms"
+                + " - timeouts {}/{}/{}ms", result.corePoolSize, result.httpMaxConnections,
+                result.httpMaxConnectionsPerHost, result.retryPolicy.strategy,
+                result.retryPolicy.maxRetries, result.retryPolicy.backoff,
+                result.timeouts.getConnectTimeout(), result.timeouts.getSocketTimeout(),
+                result.timeouts.getRequestTimeout());
+        return result;
+    }
+
+    private static void validate(CallbackSettings settings) {
+        if (settings.corePoolSize != null && settings.corePoolSize < CallbackConfiguration.MIN_CORE_POOL_SIZE) {
+            throw new IllegalArgumentException("invalid corePoolSize '" + settings.corePoolSize
+                    + "' - must be at least " + CallbackConfiguration.MIN_CORE_POOL_SIZE);
+        }
+        requirePositive("httpMaxConnections", settings.httpMaxConnections);
+        requirePositive("httpMaxConnectionsPerHost", settings.httpMaxConnectionsPerHost);
+        RetryPolicy retryPolicy = settings.retryPolicy;
+        if (retryPolicy != null) {
+            requireNonNegative("retryPolicy.maxRetries", retryPolicy.maxRetries);
+            requireNonNegative("retryPolicy.backoff", retryPolicy.backoff);
+            requireNonNegative("retryPolicy.maxBackoff", retryPolicy.maxBackoff);
+        }
+        Timeouts timeouts = settings.timeouts;
+        if (timeouts != null) {
+            requireNonNegative("timeouts.connectTimeout", timeouts.getConnectTimeout());
+            requireNonNegative("timeouts.socketTimeout", timeouts.getSocketTimeout());
+            requireNonNegative("timeouts.requestTimeout", timeouts.getRequestTimeout());
+            requireNonNegative("timeouts.deadline", timeouts.getDeadline());
+        }
+    }
+
+    private static void requirePositive(String name, Integer value) {
+        if (value != null && value <= 0) {
+            throw new IllegalArgumentException("invalid " + name + " '" + value + "' - must be positive");
+        }
+    }
+
+    private static void requireNonNegative(String name, Number value) {
+        if (value != null && value.longValue() < 0) {
+            throw new IllegalArgumentException("invalid " + name + " '" + value + "' - must not be negative");
+        }
+    }
+
+    /**
+     * Gets the {@link ScheduledExecutorService} that runs the callbacks.
+     *
+     * @return the {@link ScheduledExecutorService}.
+     */
+    public ScheduledExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Gets the pooled HTTP client to perform HTTP callbacks with.
+     *
+     * @return the {@link CloseableHttpClient}, which must not be closed by the caller.
+     */
+    public CloseableHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * Gets the reporter that sends HTTP callback results to the WireMock request journal.
+     *
+     * @return the {@link CallbackResultReporter}.
+     */
+    public CallbackResultReporter getResultReporter() {
+        return resultReporter;
+    }
+
+    /**
+     * Gets the SNS message publisher and creates it on first use.
+     *
+     * @return the {@link SnsMessagePublisher}.
+     * @throws IllegalStateException if AWS SNS messaging is disabled due to lacking configuration.
+     */
+    public synchronized SnsMessagePublisher getSnsPublisher() {
+        if (snsPublisher == null) {
+            snsPublisher = new SnsMessagePublisher();
+        }
+        return snsPublisher;
+    }
+
+    /**
+     * Implements {@link ThreadFactory} producing daemon threads ({@link Thread#isDaemon()} is {@code true}) to use
+     * with {@link ScheduledExecutorService} to avoid that the callback processing blocks WireMock shutdown.
+     */
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+        private final String name;
+
+        private DaemonThreadFactory() {
+            name = "callback-timer-" + POOL_NUMBER.getAndIncrement() + "-thread-";
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread result = new Thread(r, name + threadNumber.getAndIncrement());
+            if (!result.isDaemon()) {
+                result.setDaemon(true);
+            }
+            if (result.getPriority() != Thread.NORM_PRIORITY) {
+                result.setPriority(Thread.NORM_PRIORITY);
+            }
+            return result;
+        }
+    }
+}
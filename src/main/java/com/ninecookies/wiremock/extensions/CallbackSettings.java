@@ -0,0 +1,36 @@
+package com.ninecookies.wiremock.extensions;
+
+import com.ninecookies.wiremock.extensions.api.RetryPolicy;
+import com.ninecookies.wiremock.extensions.api.Timeouts;
+
+/**
+ * Represents the callback settings that can be changed at runtime through the admin API.
+ * <p>
+ * Properties that are not specified in an update remain unchanged.
+ *
+ * @author M.Scheepers
+ * @since 0.5.0
+ * @see CallbackRuntime#update(CallbackSettings)
+ */
+public class CallbackSettings {
+    /**
+     * The number of threads of the callback thread pool.
+     */
+    public Integer corePoolSize;
+    /**
+     * The maximum number of pooled HTTP connections.
+     */
+    public Integer httpMaxConnections;
+    /**
+     * The maximum number of pooled HTTP connections per host.
+     */
+    public Integer httpMaxConnectionsPerHost;
+    /**
+     * The global retry policy.
+     */
+    public RetryPolicy retryPolicy;
+    /**
+     * The global timeouts.
+     */
+    public Timeouts timeouts;
+}
@@ -1,60 +1,131 @@
 package com.ninecookies.wiremock.extensions;
 
+import static com.ninecookies.wiremock.extensions.util.Maps.entry;
+import static com.ninecookies.wiremock.extensions.util.Maps.mapOf;
 import static com.ninecookies.wiremock.extensions.util.Objects.coalesce;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.tomakehurst.wiremock.admin.Router;
 import com.github.tomakehurst.wiremock.common.Json;
 import com.github.tomakehurst.wiremock.core.Admin;
+import com.github.tomakehurst.wiremock.extension.AdminApiExtension;
 import com.github.tomakehurst.wiremock.extension.Parameters;
 import com.github.tomakehurst.wiremock.extension.PostServeAction;
+import com.github.tomakehurst.wiremock.http.QueryParameter;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
 import com.jayway.jsonpath.DocumentContext;
+import com.ninecookies.wiremock.extensions.AdmissionControl.Decision;
+import com.ninecookies.wiremock.extensions.CallbackStore.StoredCallback;
 import com.ninecookies.wiremock.extensions.api.Callback;
 import com.ninecookies.wiremock.extensions.api.Callbacks;
+import com.ninecookies.wiremock.extensions.api.RetryPolicy;
+import com.ninecookies.wiremock.extensions.util.Environment;
 import com.ninecookies.wiremock.extensions.util.Lists;
+import com.ninecookies.wiremock.extensions.util.Metrics;
 import com.ninecookies.wiremock.extensions.util.Placeholders;
+import com.ninecookies.wiremock.extensions.util.SimulatedClock;
 import com.ninecookies.wiremock.extensions.util.Strings;
 
 /**
  * Implements the {@link PostServeAction} interface and provides the ability to specify callback invocations for request
  * mappings.
  * <p>
- * This class utilizes the {@link ScheduledExecutorService} and configures it to use a {@link ThreadFactory} that
- * produces daemon {@link Thread}s.
+ * All instances within a JVM share the thread pool and client resources of the reference counted
+ * {@link CallbackRuntime}. When the last instance shuts down, pending callbacks are handed over to the
+ * {@link CallbackStore} and in-flight callbacks are drained within a configured timeout, see {@link #shutdown()}.
+ * <p>
+ * In addition this class implements the {@link AdminApiExtension} interface and contributes admin API routes below
+ * {@code /__admin/callbacks} to inspect the callback processing, to cancel or fire pending callbacks, to advance the
+ * {@link SimulatedClock}, to refresh or override the {@link Environment} and to replay dead letters.
  *
  * @author M.Scheepers
  * @since 0.0.6
  * @see CallbackConfiguration
  */
-public class CallbackSimulator extends PostServeAction {
+public class CallbackSimulator extends PostServeAction implements AdminApiExtension {
 
     private static final Logger LOG = LoggerFactory.getLogger(CallbackSimulator.class);
+    private static final int DEFAULT_RESULT_LIMIT = 1_000;
     private static int instances = 0;
     private final long instance = ++instances;
 
-    private final ScheduledExecutorService executor;
+    private final CallbackRuntime runtime;
     private final List<CallbackHandlerProvider> providers;
+    private final AtomicBoolean accepting = new AtomicBoolean(true);
 
     public CallbackSimulator() {
         CallbackConfiguration config = CallbackConfiguration.getInstance();
         int corePoolSize = config.getCorePoolSize();
-        LOG.info("instance: {} - using SCHEDULED_THREAD_POOL_SIZE {} - RETRY_BACKOFF {} - MAX_RETRIES {}",
-                instance, corePoolSize, config.getRetryBackoff(), config.getMaxRetries());
-        executor = Executors.newScheduledThreadPool(corePoolSize, new DaemonThreadFactory());
+        RetryPolicy retryPolicy = config.getRetryPolicy();
+        LOG.info("instance: {} - using SCHEDULED_THREAD_POOL_SIZE {} - retry policy {} {}x {}ms"
+                + " - jitter {} - max back off {}ms", instance, corePoolSize, retryPolicy.strategy,
+                retryPolicy.maxRetries, retryPolicy.backoff, retryPolicy.jitter, retryPolicy.maxBackoff);
+        runtime = CallbackRuntime.acquire();
         providers = Lists.listOf(
-                new HttpCallbackHandlerProvider(executor),
-                new SnsCallbackHandlerProvider(executor),
-                new SqsCallbackHandlerProvider(executor));
+                new HttpCallbackHandlerProvider(runtime),
+                new SnsCallbackHandlerProvider(runtime),
+                new SqsCallbackHandlerProvider(runtime));
+        recover();
+    }
+
+    /**
+     * Shuts this callback simulator down gracefully.
+     * <p>
+     * New callbacks are rejected and the reference to the shared {@link CallbackRuntime} is released. Once the last
+     * callback simulator of the JVM is shut down, pending callbacks that are not yet due are handed over to the
+     * {@link CallbackStore} and in-flight callbacks are given the configured drain timeout to complete. On JVM exit the
+     * shared runtime shuts down by its own shutdown hook, so this method only needs to be called explicitly, e.g. when
+     * stopping an embedded WireMock server.
+     */
+    public void shutdown() {
+        if (!accepting.compareAndSet(true, false)) {
+            return;
+        }
+        boolean released = runtime.release();
+        LOG.info("instance {} - shut down{}", instance, released ? " - callback runtime released" : "");
+    }
+
+    private void recover() {
+        long now = SimulatedClock.getInstance().millis();
+        for (StoredCallback stored : CallbackStore.getInstance().recover()) {
+            CallbackHandlerProvider provider = providerOf(stored.type);
+            if (provider == null) {
+                LOG.error("instance {} - unable to recover callback '{}' of unknown type '{}'", instance, stored.id,
+                        stored.type);
+                continue;
+            }
+            LOG.info("instance {} - recovered callback '{}' due at '{}'", instance, stored.id,
+                    Instant.ofEpochMilli(stored.due));
+            provider.get(Json.write(stored.callback)).resume(stored.attempt).schedule(Math.max(0, stored.due - now));
+        }
+    }
+
+    private CallbackHandlerProvider providerOf(String type) {
+        for (CallbackHandlerProvider provider : providers) {
+            if (provider.getType().equals(type)) {
+                return provider;
+            }
+        }
+        return null;
     }
 
     @Override
@@ -62,9 +133,118 @@ public class CallbackSimulator extends PostServeAction {
         return "callback-simulator";
     }
 
+    @Override
+    public void contributeAdminApiRoutes(Router router) {
+        router.add(RequestMethod.GET, "/callbacks/metrics",
+                (admin, request, pathParams) -> ResponseDefinition.okForJson(Metrics.snapshot("callback.")));
+        router.add(RequestMethod.GET, "/callbacks/settings",
+                (admin, request, pathParams) -> ResponseDefinition.okForJson(runtime.getSettings()));
+        router.add(RequestMethod.PUT, "/callbacks/settings", (admin, request, pathParams) -> {
+            try {
+                return ResponseDefinition.okForJson(runtime.update(
+                        Json.getObjectMapper().readValue(request.getBodyAsString(), CallbackSettings.class)));
+            } catch (IOException | IllegalArgumentException e) {
+                return new ResponseDefinition(400, e.getMessage());
+            }
+        });
+        router.add(RequestMethod.GET, "/callbacks/results", (admin, request, pathParams) -> {
+            Predicate<CallbackResult> filter;
+            int limit;
+            try {
+                filter = callbackResultFilter(request);
+                String limitParameter = queryParameter(request, "limit");
+                limit = (limitParameter == null) ? DEFAULT_RESULT_LIMIT : Integer.parseInt(limitParameter);
+            } catch (IllegalArgumentException e) {
+                return new ResponseDefinition(400, e.getMessage());
+            }
+            CallbackResultJournal journal = CallbackResultJournal.getInstance();
+            return ResponseDefinition.okForJson(mapOf(
+                    entry("count", journal.count(filter)),
+                    entry("results", journal.find(filter, limit))));
+        });
+        router.add(RequestMethod.DELETE, "/callbacks/results", (admin, request, pathParams) -> {
+            CallbackResultJournal.getInstance().clear();
+            return ResponseDefinition.noContent();
+        });
+        router.add(RequestMethod.GET, "/callbacks/pending",
+                (admin, request, pathParams) -> ResponseDefinition.okForJson(
+                        PendingCallbacks.getInstance().find(pendingFilter(request))));
+        router.add(RequestMethod.GET, "/callbacks/pending/count",
+                (admin, request, pathParams) -> ResponseDefinition.okForJson(
+                        PendingCallbacks.getInstance().countByTarget(pendingFilter(request))));
+        router.add(RequestMethod.DELETE, "/callbacks/pending",
+                (admin, request, pathParams) -> ResponseDefinition.okForJson(
+                        PendingCallbacks.getInstance().cancel(pendingFilter(request))));
+        router.add(RequestMethod.DELETE, "/callbacks/pending/{id}", (admin, request, pathParams) -> {
+            String id = pathParams.get("id");
+            List<PendingCallback> cancelled = PendingCallbacks.getInstance().cancel(p -> id.equals(p.id));
+            return cancelled.isEmpty() ? ResponseDefinition.notFound()
+                    : ResponseDefinition.okForJson(cancelled.get(0));
+        });
+        router.add(RequestMethod.POST, "/callbacks/pending/fire",
+                (admin, request, pathParams) -> ResponseDefinition.okForJson(
+                        PendingCallbacks.getInstance().fire(pendingFilter(request))));
+        router.add(RequestMethod.POST, "/callbacks/pending/{id}/fire", (admin, request, pathParams) -> {
+            String id = pathParams.get("id");
+            List<PendingCallback> fired = PendingCallbacks.getInstance().fire(p -> id.equals(p.id));
+            return fired.isEmpty() ? ResponseDefinition.notFound() : ResponseDefinition.okForJson(fired.get(0));
+        });
+        router.add(RequestMethod.GET, "/callbacks/clock",
+                (admin, request, pathParams) -> ResponseDefinition.okForJson(clockState(0)));
+        router.add(RequestMethod.POST, "/callbacks/clock/advance", (admin, request, pathParams) -> {
+            try {
+                SimulatedClock.getInstance().advance(parseDuration(queryParameter(request, "duration")));
+            } catch (IllegalArgumentException e) {
+                return new ResponseDefinition(400, e.getMessage());
+            }
+            return ResponseDefinition.okForJson(clockState(PendingCallbacks.getInstance().reschedule().size()));
+        });
+        router.add(RequestMethod.DELETE, "/callbacks/clock", (admin, request, pathParams) -> {
+            SimulatedClock.getInstance().reset();
+            return ResponseDefinition.okForJson(clockState(PendingCallbacks.getInstance().reschedule().size()));
+        });
+        router.add(RequestMethod.GET, "/callbacks/environment",
+                (admin, request, pathParams) -> ResponseDefinition.okForJson(environmentState()));
+        router.add(RequestMethod.POST, "/callbacks/environment/refresh", (admin, request, pathParams) -> {
+            Environment.getInstance().refresh();
+            return ResponseDefinition.okForJson(environmentState());
+        });
+        router.add(RequestMethod.PUT, "/callbacks/environment/overrides", (admin, request, pathParams) -> {
+            try {
+                Environment.getInstance().setOverrides(Json.getObjectMapper().readValue(request.getBodyAsString(),
+                        new TypeReference<Map<String, String>>() {
+                        }));
+            } catch (IOException e) {
+                return new ResponseDefinition(400, e.getMessage());
+            }
+            return ResponseDefinition.okForJson(environmentState());
+        });
+        router.add(RequestMethod.DELETE, "/callbacks/environment/overrides", (admin, request, pathParams) -> {
+            Environment.getInstance().setOverrides(null);
+            return ResponseDefinition.okForJson(environmentState());
+        });
+        router.add(RequestMethod.GET, "/callbacks/dead-letters",
+                (admin, request, pathParams) -> ResponseDefinition.okForJson(
+                        DeadLetterStore.getInstance().find(deadLetterFilter(request))));
+        router.add(RequestMethod.GET, "/callbacks/dead-letters/{id}", (admin, request, pathParams) -> {
+            DeadLetter deadLetter = DeadLetterStore.getInstance().get(pathParams.get("id"));
+            return (deadLetter == null) ? ResponseDefinition.notFound() : ResponseDefinition.okForJson(deadLetter);
+        });
+        router.add(RequestMethod.POST, "/callbacks/dead-letters/replay",
+                (admin, request, pathParams) -> ResponseDefinition.okForJson(replay(deadLetterFilter(request))));
+        router.add(RequestMethod.DELETE, "/callbacks/dead-letters",
+                (admin, request, pathParams) -> ResponseDefinition.okForJson(
+                        DeadLetterStore.getInstance().remove(deadLetterFilter(request))));
+    }
+
     @Override
     public void doAction(ServeEvent serveEvent, Admin admin, Parameters parameters) {
         LOG.debug("doAction[{}](serveEvent: {}, admin: {}, parameters: {})", instance, serveEvent, admin, parameters);
+        if (!accepting.get()) {
+            LOG.warn("instance {} - shutting down - reject callbacks of '{}'", instance,
+                    serveEvent.getRequest().getUrl());
+            return;
+        }
 
         List<String> urlParts = Placeholders.splitUrl(serveEvent.getRequest().getUrl());
 
@@ -90,41 +270,145 @@ public class CallbackSimulator extends PostServeAction {
                 if (!provider.supports(callback)) {
                     continue;
                 }
-                Runnable handler = provider.get(callback, placeholders, admin);
-                if (handler != null) {
+                AbstractCallbackHandler<?> handler = provider.get(callback, placeholders, admin);
+                if (handler == null) {
+                    continue;
+                }
+                // admit resolvable callbacks only as drop-oldest might cancel a pending callback
+                Decision decision = AdmissionControl.getInstance().admit(provider.getType());
+                if (decision == Decision.REJECT) {
+                    handler.dispose();
+                    continue;
+                }
+                if (decision == Decision.INLINE) {
+                    LOG.info("instance {} - handling callback task to: '{}' inline", instance, handler.getTarget());
+                    handler.run();
+                } else {
                     LOG.info("instance {} - scheduling callback task to: '{}' with delay '{}' and data '{}'",
                             instance,
                             coalesce(callback.url, coalesce(callback.topic, callback.queue)), callback.delay,
                             callback.data);
-                    executor.schedule(handler, callback.delay, TimeUnit.MILLISECONDS);
+                    handler.schedule(callback.delay);
                 }
             }
         }
     }
 
     /**
-     * Implements {@link ThreadFactory} producing daemon threads ({@link Thread#isDaemon()} is {@code true}) to use
-     * with {@link ScheduledExecutorService} to avoid that {@link CallbackSimulator} blocks WireMock shutdown.
+     * Replays the dead letters matching the specified {@code filter}. Replays pass the {@link AdmissionControl} like
+     * new callbacks, rejected dead letters remain in the store.
      */
-    private static final class DaemonThreadFactory implements ThreadFactory {
-        private static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
-        private final AtomicInteger threadNumber = new AtomicInteger(1);
-        private final String name;
-
-        private DaemonThreadFactory() {
-            name = "callback-timer-" + POOL_NUMBER.getAndIncrement() + "-thread-";
+    private List<DeadLetter> replay(Predicate<DeadLetter> filter) {
+        DeadLetterStore store = DeadLetterStore.getInstance();
+        List<DeadLetter> result = new ArrayList<>();
+        List<AbstractCallbackHandler<?>> inline = new ArrayList<>();
+        // replays of concurrent requests must not dispatch the same dead letter twice
+        synchronized (store) {
+            for (DeadLetter deadLetter : store.find(filter)) {
+                CallbackHandlerProvider provider = providerOf(deadLetter.type);
+                if (provider == null) {
+                    continue;
+                }
+                AbstractCallbackHandler<?> handler = provider.get(Json.write(deadLetter.callback));
+                if (handler == null) {
+                    continue;
+                }
+                Decision decision = AdmissionControl.getInstance().admit(deadLetter.type);
+                if (decision == Decision.REJECT) {
+                    handler.dispose();
+                    continue;
+                }
+                LOG.info("instance {} - replaying dead letter '{}' to: '{}'", instance, deadLetter.id,
+                        deadLetter.target);
+                if (decision == Decision.INLINE) {
+                    inline.add(handler);
+                } else {
+                    handler.schedule(0);
+                }
+                result.add(deadLetter);
+            }
+            Set<String> replayed = result.stream().map(d -> d.id).collect(Collectors.toSet());
+            store.remove(d -> replayed.contains(d.id));
         }
+        // don't block the store while handling callbacks inline
+        inline.forEach(AbstractCallbackHandler::run);
+        return result;
+    }
+
+    private static Map<String, Object> clockState(int fired) {
+        SimulatedClock clock = SimulatedClock.getInstance();
+        return mapOf(
+                entry("now", clock.instant().toString()),
+                entry("offset", clock.getOffset()),
+                entry("fired", fired));
+    }
 
-        @Override
-        public Thread newThread(Runnable r) {
-            Thread result = new Thread(r, name + threadNumber.getAndIncrement());
-            if (!result.isDaemon()) {
-                result.setDaemon(true);
+    private static Map<String, Object> environmentState() {
+        Environment environment = Environment.getInstance();
+        return mapOf(
+                entry("version", environment.getVersion()),
+                entry("overrides", environment.getOverrides()));
+    }
+
+    private static Duration parseDuration(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("missing duration - expected ISO-8601 duration or milliseconds");
+        }
+        try {
+            return Duration.parse(value);
+        } catch (DateTimeParseException e) {
+            try {
+                return Duration.ofMillis(Long.parseLong(value));
+            } catch (NumberFormatException nfe) {
+                throw new IllegalArgumentException("invalid duration '" + value
+                        + "' - expected ISO-8601 duration or milliseconds", nfe);
             }
-            if (result.getPriority() != Thread.NORM_PRIORITY) {
-                result.setPriority(Thread.NORM_PRIORITY);
+        }
+    }
+
+    private static Predicate<CallbackResult> callbackResultFilter(Request request) {
+        String target = queryParameter(request, "target");
+        String traceId = queryParameter(request, "traceId");
+        long from = parseTime(queryParameter(request, "from"), Long.MIN_VALUE);
+        long to = parseTime(queryParameter(request, "to"), Long.MAX_VALUE);
+        return r -> (target == null || target.equals(r.target)) && (traceId == null || traceId.equals(r.traceId))
+                && r.timestamp >= from && r.timestamp < to;
+    }
+
+    private static long parseTime(String value, long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Instant.parse(value).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException nfe) {
+                throw new IllegalArgumentException("invalid time '" + value
+                        + "' - expected ISO-8601 instant or epoch milliseconds", nfe);
             }
-            return result;
         }
     }
+
+    private static Predicate<DeadLetter> deadLetterFilter(Request request) {
+        return typeAndTargetFilter(request, d -> d.type, d -> d.target);
+    }
+
+    private static Predicate<PendingCallback> pendingFilter(Request request) {
+        return typeAndTargetFilter(request, p -> p.type, p -> p.target);
+    }
+
+    private static <E> Predicate<E> typeAndTargetFilter(Request request, Function<E, String> typeOf,
+            Function<E, String> targetOf) {
+        String type = queryParameter(request, "type");
+        String target = queryParameter(request, "target");
+        return e -> (type == null || type.equals(typeOf.apply(e)))
+                && (target == null || target.equals(targetOf.apply(e)));
+    }
+
+    private static String queryParameter(Request request, String name) {
+        QueryParameter parameter = request.queryParameter(name);
+        return parameter.isPresent() ? parameter.firstValue() : null;
+    }
 }
@@ -0,0 +1,142 @@
+package com.ninecookies.wiremock.extensions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.tomakehurst.wiremock.common.Json;
+import com.ninecookies.wiremock.extensions.util.Strings;
+
+/**
+ * Implements the store for callbacks that were still pending when the {@link CallbackSimulator} shut down.
+ * <p>
+ * Every stored callback is written to a separate JSON file in the configured store directory and is recovered and
+ * rescheduled with its remaining delay on the next start.
+ *
+ * @author M.Scheepers
+ * @since 0.5.0
+ * @see CallbackConfiguration
+ */
+public class CallbackStore {
+
+    /**
+     * Represents a callback persisted in the {@link CallbackStore}.
+     */
+    public static class StoredCallback {
+        /**
+         * The unique identifier of the callback.
+         */
+        public String id;
+        /**
+         * The type of the callback, either one of {@code http}, {@code sns} or {@code sqs}.
+         */
+        public String type;
+        /**
+         * The epoch milliseconds when the callback is due.
+         */
+        public long due;
+        /**
+         * The attempt the callback is scheduled for starting with {@code 1}.
+         */
+        public int attempt;
+        /**
+         * The callback definition.
+         */
+        public JsonNode callback;
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(CallbackStore.class);
+    private static final String FILE_SUFFIX = ".callback.json";
+
+    private static final class InstanceHolder {
+        private static final CallbackStore INSTANCE = new CallbackStore(
+                CallbackConfiguration.getInstance().getCallbackStoreDirectory());
+    }
+
+    private final File directory;
+
+    // visible for testing
+    CallbackStore(String directory) {
+        this.directory = Strings.isNullOrEmpty(directory) ? null : new File(directory);
+    }
+
+    /**
+     * Indicates whether a store directory is configured.
+     *
+     * @return {@code true} if pending callbacks can be stored; otherwise {@code false}.
+     */
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Persists the specified pending callback.
+     *
+     * @param id the unique identifier of the callback.
+     * @param type the type of the callback.
+     * @param due the epoch milliseconds when the callback is due.
+     * @param attempt the attempt the callback is scheduled for.
+     * @param callbackJson the JSON representation of the callback definition.
+     * @return {@code true} if the callback was persisted; otherwise {@code false}.
+     */
+    public boolean persist(String id, String type, long due, int attempt, String callbackJson) {
+        if (!isEnabled()) {
+            LOG.warn("callback store disabled - drop pending callback '{}'", id);
+            return false;
+        }
+        StoredCallback stored = new StoredCallback();
+        stored.id = id;
+        stored.type = type;
+        stored.due = due;
+        stored.attempt = attempt;
+        stored.callback = Json.node(callbackJson);
+        try {
+            Files.createDirectories(directory.toPath());
+            Files.write(new File(directory, id + FILE_SUFFIX).toPath(),
+                    Json.write(stored).getBytes(StandardCharsets.UTF_8));
+            return true;
+        } catch (IOException e) {
+            LOG.error("unable to store pending callback '{}' in '{}'", id, directory, e);
+            return false;
+        }
+    }
+
+    /**
+     * Reads and removes all stored callbacks.
+     *
+     * @return a {@link List} of the recovered {@link StoredCallback}s.
+     */
+    public List<StoredCallback> recover() {
+        List<StoredCallback> result = new ArrayList<>();
+        File[] files = isEnabled() ? directory.listFiles((dir, name) -> name.endsWith(FILE_SUFFIX)) : null;
+        if (files == null) {
+            return result;
+        }
+        for (File file : files) {
+            try {
+                result.add(Json.read(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8),
+                        StoredCallback.class));
+                Files.delete(file.toPath());
+            } catch (Exception e) {
+                LOG.error("unable to recover stored callback '{}'", file, e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the callback store instance.
+     *
+     * @return the {@link CallbackStore} instance.
+     */
+    public static CallbackStore getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+}
@@ -0,0 +1,164 @@
+package com.ninecookies.wiremock.extensions;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ninecookies.wiremock.extensions.util.Metrics;
+import com.ninecookies.wiremock.extensions.util.SimulatedClock;
+
+/**
+ * Implements a simple circuit breaker that short-circuits callbacks to a target after a configured number of
+ * consecutive failures.
+ * <p>
+ * Once opened the circuit stays open for the configured duration. Afterwards a single probe callback is permitted
+ * (half-open) that either closes the circuit on success or opens it again on failure. If the probe doesn't report its
+ * result within the open duration another probe is permitted. The open duration is measured with the
+ * {@link SimulatedClock}.
+ *
+ * @author M.Scheepers
+ * @since 0.5.0
+ * @see CallbackConfiguration
+ */
+public class CircuitBreaker {
+
+    /**
+     * Defines the states of a {@link CircuitBreaker}.
+     */
+    public enum State {
+        /**
+         * Callbacks are permitted.
+         */
+        CLOSED,
+        /**
+         * Callbacks are short-circuited.
+         */
+        OPEN,
+        /**
+         * A single probe callback is permitted.
+         */
+        HALF_OPEN
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(CircuitBreaker.class);
+    private static final String METRICS_PREFIX = "callback.circuit-breaker.";
+    private static final Map<String, CircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+    private static final Status CLOSED = new Status(State.CLOSED, 0);
+
+    /**
+     * Represents the state together with the time it was entered, so that both are published atomically.
+     */
+    private static final class Status {
+        private final State state;
+        private final long since;
+
+        private Status(State state, long since) {
+            this.state = state;
+            this.since = since;
+        }
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDuration;
+    private final AtomicReference<Status> status = new AtomicReference<>(CLOSED);
+    private final AtomicInteger failures = new AtomicInteger();
+
+    // visible for testing
+    CircuitBreaker(String name, int failureThreshold, long openDuration) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+    }
+
+    /**
+     * Gets the name of the target this circuit breaker guards.
+     *
+     * @return the name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the current state.
+     *
+     * @return the {@link State}.
+     */
+    public State getState() {
+        return status.get().state;
+    }
+
+    /**
+     * Indicates whether a callback to the guarded target is permitted.
+     *
+     * @return {@code true} if the callback is permitted; otherwise {@code false}.
+     */
+    public boolean tryAcquire() {
+        if (failureThreshold <= 0) {
+            return true;
+        }
+        Status current = status.get();
+        if (current.state == State.CLOSED) {
+            return true;
+        }
+        // a stale probe that never reported its result is replaced as well
+        long now = SimulatedClock.getInstance().millis();
+        if (now - current.since >= openDuration && status.compareAndSet(current, new Status(State.HALF_OPEN, now))) {
+            LOG.info("circuit for '{}' half-open - probing", name);
+            return true;
+        }
+        Metrics.increment(METRICS_PREFIX + name + ".rejected");
+        return false;
+    }
+
+    /**
+     * Records a successful callback to the guarded target.
+     */
+    public void onSuccess() {
+        failures.set(0);
+        if (status.getAndSet(CLOSED).state != State.CLOSED) {
+            LOG.info("circuit for '{}' closed", name);
+        }
+    }
+
+    /**
+     * Records a failed callback to the guarded target.
+     */
+    public void onFailure() {
+        if (failureThreshold <= 0) {
+            return;
+        }
+        Status current = status.get();
+        boolean open = current.state == State.HALF_OPEN
+                || (current.state == State.CLOSED && failures.incrementAndGet() >= failureThreshold);
+        if (open && status.compareAndSet(current, new Status(State.OPEN, SimulatedClock.getInstance().millis()))) {
+            Metrics.increment(METRICS_PREFIX + name + ".opened");
+            LOG.warn("circuit for '{}' opened for {}ms", name, openDuration);
+        }
+    }
+
+    /**
+     * Gets the {@link CircuitBreaker} for the specified {@code name} and creates it if required.
+     *
+     * @param name the name of the target to guard.
+     * @return the {@link CircuitBreaker} instance.
+     */
+    public static CircuitBreaker of(String name) {
+        CallbackConfiguration config = CallbackConfiguration.getInstance();
+        return of(name, config.getCircuitBreakerFailureThreshold(), config.getCircuitBreakerOpenDuration());
+    }
+
+    // visible for testing
+    static CircuitBreaker of(String name, int failureThreshold, long openDuration) {
+        return BREAKERS.computeIfAbsent(name, n -> {
+            CircuitBreaker result = new CircuitBreaker(n, failureThreshold, openDuration);
+            Metrics.gauge(METRICS_PREFIX + n + ".state", result::getState);
+            return result;
+        });
+    }
+}
@@ -0,0 +1,40 @@
+package com.ninecookies.wiremock.extensions;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Represents a callback that finally failed and was captured by the {@link DeadLetterStore}.
+ *
+ * @author M.Scheepers
+ * @since 0.5.0
+ */
+public class DeadLetter {
+    /**
+     * The unique identifier of the dead letter.
+     */
+    public String id;
+    /**
+     * The type of the callback, either one of {@code http}, {@code sns} or {@code sqs}.
+     */
+    public String type;
+    /**
+     * The callback target, either one of HTTP URL, SNS topic or SQS queue.
+     */
+    public String target;
+    /**
+     * The epoch milliseconds when the callback finally failed.
+     */
+    public long failedAt;
+    /**
+     * The number of attempts that were performed.
+     */
+    public int attempts;
+    /**
+     * The error message of the last attempt.
+     */
+    public String error;
+    /**
+     * The final callback definition.
+     */
+    public JsonNode callback;
+}
@@ -0,0 +1,197 @@
+package com.ninecookies.wiremock.extensions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.tomakehurst.wiremock.common.Json;
+import com.ninecookies.wiremock.extensions.util.Metrics;
+import com.ninecookies.wiremock.extensions.util.Strings;
+
+/**
+ * Implements a bounded store for callbacks that finally failed.
+ * <p>
+ * The store keeps the latest dead letters in memory and evicts the oldest ones when the configured capacity is
+ * exceeded. If a dead letter file is configured all dead letters are additionally written to that file as JSON lines
+ * so that they survive a restart.
+ *
+ * @author M.Scheepers
+ * @since 0.5.0
+ * @see CallbackConfiguration
+ */
+public class DeadLetterStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DeadLetterStore.class);
+    private static final String METRICS_PREFIX = "callback.dead-letters.";
+
+    private static final class InstanceHolder {
+        private static final DeadLetterStore INSTANCE = new DeadLetterStore(
+                CallbackConfiguration.getInstance().getDeadLetterCapacity(),
+                CallbackConfiguration.getInstance().getDeadLetterFile());
+
+        static {
+            Metrics.gauge(METRICS_PREFIX + "size", INSTANCE::size);
+        }
+    }
+
+    private final int capacity;
+    private final File segment;
+    private final Map<String, DeadLetter> deadLetters = new LinkedHashMap<>();
+    private int segmentEntries;
+
+    // visible for testing
+    DeadLetterStore(int capacity, String segmentFile) {
+        this.capacity = capacity;
+        this.segment = Strings.isNullOrEmpty(segmentFile) ? null : new File(segmentFile);
+        loadSegment();
+    }
+
+    /**
+     * Adds the specified {@code deadLetter} to this store and evicts the oldest dead letter if the capacity is
+     * exceeded.
+     *
+     * @param deadLetter the {@link DeadLetter} to add.
+     */
+    public synchronized void add(DeadLetter deadLetter) {
+        if (capacity <= 0) {
+            return;
+        }
+        Metrics.increment(METRICS_PREFIX + "total");
+        deadLetters.put(deadLetter.id, deadLetter);
+        if (deadLetters.size() > capacity) {
+            Iterator<DeadLetter> eldest = deadLetters.values().iterator();
+            LOG.warn("dead letter capacity {} exceeded - evict '{}'", capacity, eldest.next().id);
+            eldest.remove();
+            Metrics.increment(METRICS_PREFIX + "evicted");
+        }
+        appendSegment(deadLetter);
+    }
+
+    /**
+     * Gets the dead letter with the specified {@code id}.
+     *
+     * @param id the identifier of the dead letter.
+     * @return the {@link DeadLetter} or {@code null} if there is no dead letter with the specified {@code id}.
+     */
+    public synchronized DeadLetter get(String id) {
+        return deadLetters.get(id);
+    }
+
+    /**
+     * Gets all dead letters matching the specified {@code filter} in the order they were added.
+     *
+     * @param filter the {@link Predicate} to filter the dead letters.
+     * @return a {@link List} of matching {@link DeadLetter}s.
+     */
+    public synchronized List<DeadLetter> find(Predicate<DeadLetter> filter) {
+        return deadLetters.values().stream().filter(filter).collect(Collectors.toList());
+    }
+
+    /**
+     * Removes all dead letters matching the specified {@code filter} from this store.
+     *
+     * @param filter the {@link Predicate} to filter the dead letters.
+     * @return a {@link List} of the removed {@link DeadLetter}s.
+     */
+    public synchronized List<DeadLetter> remove(Predicate<DeadLetter> filter) {
+        List<DeadLetter> result = new ArrayList<>();
+        Iterator<DeadLetter> iterator = deadLetters.values().iterator();
+        while (iterator.hasNext()) {
+            DeadLetter deadLetter = iterator.next();
+            if (filter.test(deadLetter)) {
+                result.add(deadLetter);
+                iterator.remove();
+            }
+        }
+        if (!result.isEmpty()) {
+            rewriteSegment();
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of dead letters in this store.
+     *
+     * @return the number of dead letters.
+     */
+    public synchronized int size() {
+        return deadLetters.size();
+    }
+
+    private void loadSegment() {
+        if (segment == null || !segment.exists()) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(segment.toPath(), StandardCharsets.UTF_8)) {
+                if (Strings.isNullOrEmpty(line)) {
+                    continue;
+                }
+                DeadLetter deadLetter = Json.read(line, DeadLetter.class);
+                deadLetters.put(deadLetter.id, deadLetter);
+                if (deadLetters.size() > capacity) {
+                    deadLetters.remove(deadLetters.keySet().iterator().next());
+                }
+            }
+            LOG.info("loaded {} dead letters from '{}'", deadLetters.size(), segment);
+            rewriteSegment();
+        } catch (Exception e) {
+            LOG.error("unable to load dead letters from '{}'", segment, e);
+        }
+    }
+
+    private void appendSegment(DeadLetter deadLetter) {
+        if (segment == null) {
+            return;
+        }
+        // compact the segment once it contains too many evicted entries
+        if (++segmentEntries > 2 * capacity) {
+            rewriteSegment();
+            return;
+        }
+        try {
+            Files.write(segment.toPath(), (Json.write(deadLetter).replace("\n", "") + "\n")
+                    .getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            LOG.error("unable to append dead letter to '{}'", segment, e);
+        }
+    }
+
+    private void rewriteSegment() {
+        if (segment == null) {
+            return;
+        }
+        StringBuilder content = new StringBuilder();
+        for (DeadLetter deadLetter : deadLetters.values()) {
+            content.append(Json.write(deadLetter).replace("\n", "")).append("\n");
+        }
+        try {
+            Files.write(segment.toPath(), content.toString().getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            segmentEntries = deadLetters.size();
+        } catch (IOException e) {
+            LOG.error("unable to write dead letters to '{}'", segment, e);
+        }
+    }
+
+    /**
+     * Gets the dead letter store instance.
+     *
+     * @return the {@link DeadLetterStore} instance.
+     */
+    public static DeadLetterStore getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+}
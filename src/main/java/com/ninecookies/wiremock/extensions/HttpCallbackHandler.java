@@ -9,19 +9,17 @@ import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Map;
-import java.util.concurrent.ScheduledExecutorService;
 
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpHeaders;
-import org.apache.http.HttpResponse;
 import org.apache.http.ParseException;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.message.BasicHeader;
 import org.apache.http.protocol.HttpContext;
 import org.apache.http.util.EntityUtils;
@@ -30,6 +28,7 @@ import com.github.tomakehurst.wiremock.common.Json;
 import com.ninecookies.wiremock.extensions.HttpCallbackHandler.HttpCallbackDefinition;
 import com.ninecookies.wiremock.extensions.api.Authentication;
 import com.ninecookies.wiremock.extensions.api.Authentication.Type;
+import com.ninecookies.wiremock.extensions.api.Timeouts;
 
 /**
  * Implements {@link Runnable} and uses {@link HttpPost} in combination with {@link HttpEntity} and
@@ -95,26 +94,53 @@ public class HttpCallbackHandler extends AbstractCallbackHandler<HttpCallbackDef
     }
 
     private static final String RPS_TRACEID_HEADER = "X-Rps-TraceId";
-    private static final RequestConfig REQUEST_CONFIG = RequestConfig.custom()
-            .setSocketTimeout(2_000)
-            .setConnectTimeout(3_000)
-            .setConnectionRequestTimeout(5_000)
-            .build();
 
-    private HttpCallbackHandler(ScheduledExecutorService executor, File callbackFile) {
-        super(executor, callbackFile, HttpCallbackDefinition.class);
+    private final CloseableHttpClient client;
+    private final CallbackResultReporter resultReporter;
+    private Integer lastStatus;
+
+    private HttpCallbackHandler(CallbackRuntime runtime, File callbackFile) {
+        super(runtime.getExecutor(), callbackFile, HttpCallbackDefinition.class);
+        client = runtime.getHttpClient();
+        resultReporter = runtime.getResultReporter();
     }
 
     @Override
     public void handle(HttpCallbackDefinition callback) throws CallbackException {
         getLog().debug("CallbackHandler.run()");
+        lastStatus = null;
 
         URI uri = createURI(callback.target);
         HttpPost post = createPostRequest(uri, (String) callback.data);
+        Timeouts timeouts = getTimeouts(callback);
+        long remainingTime = getRemainingTime(timeouts);
+        if (remainingTime <= 0) {
+            throw new CallbackException("post to '" + uri + "' cancelled: deadline exceeded");
+        }
+        post.setConfig(createRequestConfig(timeouts, remainingTime));
         post.addHeader(RPS_TRACEID_HEADER, callback.traceId);
         post.addHeader(authenticationToHeader(callback.authentication));
 
-        CallbackResponse response = performRequest(post);
+        CircuitBreaker circuitBreaker = CircuitBreaker.of(hostOf(uri));
+        if (!circuitBreaker.tryAcquire()) {
+            throw new RetryCallbackException(String.format(
+                    "post to '%s' short-circuited: circuit for '%s' is open", uri, circuitBreaker.getName()));
+        }
+        CallbackResponse response = null;
+        try {
+            response = performRequest(post);
+        } finally {
+            // any request without a response, e.g. due to a closed connection pool, must release a probe as well
+            if (response == null) {
+                circuitBreaker.onFailure();
+            }
+        }
+        lastStatus = response.statusCode;
+        if (response.statusCode >= 500) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onSuccess();
+        }
 
         HttpStatusRange expectedStatus = new HttpStatusRange(callback.expectedHttpStatus);
         if (expectedStatus.matches(response.statusCode)) {
@@ -128,29 +154,35 @@ public class HttpCallbackHandler extends AbstractCallbackHandler<HttpCallbackDef
                 uri, response.statusLine, response.entityString));
     }
 
-    private void recordSuccess(HttpCallbackDefinition callback, CallbackResponse response) throws CallbackException {
+    @Override
+    protected void describe(HttpCallbackDefinition callback, CallbackResult result) {
+        result.traceId = callback.traceId;
+        result.status = lastStatus;
+    }
+
+    @Override
+    protected Bulkhead getBulkhead(HttpCallbackDefinition callback) throws CallbackException {
+        return Bulkhead.of("http:" + hostOf(createURI(callback.target)),
+                CallbackConfiguration.getInstance().getHttpMaxConcurrency());
+    }
+
+    private void recordSuccess(HttpCallbackDefinition callback, CallbackResponse response) {
         if (callback.skipResultReport) {
             getLog().debug("journal disabled - skip callback result report for '{}'", callback.target);
             return;
         }
 
-        URI uri = createURI(String.format("http://localhost:%s/callback/result", callback.localWiremockPort));
-
         Map<String, Object> data = mapOf(
                 entry("result", "success"),
                 entry("target", callback.target),
                 entry("response", mapOf(
                         entry("status", response.statusCode),
                         entry("body", String.valueOf(response.entityString)))));
-        String bodyData = Json.write(data);
-        HttpPost post = createPostRequest(uri, bodyData);
-        try {
-            CallbackResponse reportResponse = performRequest(post);
-            getLog().debug("report post \n{}\n\tto '{}' succeeded: response: {}",
-                    bodyData, uri, reportResponse.statusLine);
-        } catch (RetryCallbackException e) {
-            throw new CallbackException("unable to record callback success result", e);
-        }
+        resultReporter.report(callback.localWiremockPort, Json.write(data));
+    }
+
+    private static String hostOf(URI uri) {
+        return uri.getHost() + ":" + uri.getPort();
     }
 
     private URI createURI(String url) throws CallbackException {
@@ -162,8 +194,8 @@ public class HttpCallbackHandler extends AbstractCallbackHandler<HttpCallbackDef
     }
 
     private CallbackResponse performRequest(HttpPost request) throws RetryCallbackException {
-        try (CloseableHttpClient client = HttpClientBuilder.create().build()) {
-            HttpResponse response = client.execute(request);
+        // close the response but keep the shared client to return the connection to the pool
+        try (CloseableHttpResponse response = client.execute(request)) {
             return CallbackResponse.of(response.getStatusLine().toString(),
                     response.getStatusLine().getStatusCode(),
                     readEntity(response.getEntity()));
@@ -176,7 +208,6 @@ public class HttpCallbackHandler extends AbstractCallbackHandler<HttpCallbackDef
     private HttpPost createPostRequest(URI uri, String body) throws CallbackException {
         try {
             HttpPost post = new HttpPost(uri);
-            post.setConfig(REQUEST_CONFIG);
             post.setEntity(new StringEntity(body, ContentType.APPLICATION_JSON));
             return post;
         } catch (Exception e) {
@@ -184,6 +215,15 @@ public class HttpCallbackHandler extends AbstractCallbackHandler<HttpCallbackDef
         }
     }
 
+    private RequestConfig createRequestConfig(Timeouts timeouts, long remainingTime) {
+        // don't let a single attempt exceed the deadline of the callback
+        return RequestConfig.custom()
+                .setConnectTimeout((int) Math.min(timeouts.getConnectTimeout(), remainingTime))
+                .setSocketTimeout((int) Math.min(timeouts.getSocketTimeout(), remainingTime))
+                .setConnectionRequestTimeout(timeouts.getRequestTimeout())
+                .build();
+    }
+
     private String readEntity(HttpEntity entity) {
         String result = null;
         if (entity != null) {
@@ -211,7 +251,7 @@ public class HttpCallbackHandler extends AbstractCallbackHandler<HttpCallbackDef
         throw new CallbackException("Unsupported authentication type '" + authentication.getType() + "'");
     }
 
-    public static Runnable of(ScheduledExecutorService executor, File callbackFile) {
-        return new HttpCallbackHandler(executor, callbackFile);
+    public static HttpCallbackHandler of(CallbackRuntime runtime, File callbackFile) {
+        return new HttpCallbackHandler(runtime, callbackFile);
     }
 }
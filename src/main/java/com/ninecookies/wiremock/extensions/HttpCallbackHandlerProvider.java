@@ -2,7 +2,6 @@ package com.ninecookies.wiremock.extensions;
 
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ScheduledExecutorService;
 
 import com.github.tomakehurst.wiremock.common.Json;
 import com.github.tomakehurst.wiremock.core.Admin;
@@ -23,10 +22,10 @@ public class HttpCallbackHandlerProvider extends AbstractCallbackHandlerProvider
     /**
      * Initialize a new instance of the {@link HttpCallbackHandlerProvider} with the specified arguments.
      *
-     * @param executor the {@link ScheduledExecutorService} that runs the created handler.
+     * @param runtime the {@link CallbackRuntime} that runs the created handler.
      */
-    public HttpCallbackHandlerProvider(ScheduledExecutorService executor) {
-        super(HttpCallbackHandler::of, executor);
+    public HttpCallbackHandlerProvider(CallbackRuntime runtime) {
+        super("http", HttpCallbackHandler::of, runtime);
     }
 
     @Override
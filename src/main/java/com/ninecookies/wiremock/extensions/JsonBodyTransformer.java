@@ -15,6 +15,7 @@ import com.github.tomakehurst.wiremock.http.Request;
 import com.github.tomakehurst.wiremock.http.RequestMethod;
 import com.github.tomakehurst.wiremock.http.Response;
 import com.jayway.jsonpath.DocumentContext;
+import com.ninecookies.wiremock.extensions.util.JsonIndex;
 import com.ninecookies.wiremock.extensions.util.Placeholders;
 
 public class JsonBodyTransformer extends ResponseTransformer {
@@ -22,6 +23,7 @@ public class JsonBodyTransformer extends ResponseTransformer {
     private static final Logger LOG = LoggerFactory.getLogger(JsonBodyTransformer.class);
 
     private static final String CONTENT_TYPE_APPLICATION_JSON = "application/json";
+    private static final String URL_PARTS = "urlParts";
     private static final Set<RequestMethod> METHODS_WITH_CONTENT = new HashSet<>(
             Arrays.asList(RequestMethod.PUT, RequestMethod.POST, RequestMethod.PATCH));
 
@@ -32,8 +34,14 @@ public class JsonBodyTransformer extends ResponseTransformer {
             return response;
         }
         String responseBody = response.getBodyAsString();
-        DocumentContext placeholderSource = preparePlaceholderSource(request);
-        String transformedResponseBody = Placeholders.transformJson(placeholderSource, responseBody);
+        String requestJson = requestJson(request);
+        JsonIndex requestIndex = JsonIndex.of(requestJson);
+        if (requestIndex.find(URL_PARTS) != null) {
+            // the request's own property is replaced by the URL parts
+            requestIndex = null;
+        }
+        String transformedResponseBody = Placeholders.transformJson(requestIndex,
+                () -> preparePlaceholderSource(request, requestJson), responseBody);
         Response result = Response.Builder.like(response).but().body(transformedResponseBody).build();
         return result;
     }
@@ -64,7 +72,7 @@ public class JsonBodyTransformer extends ResponseTransformer {
         return true;
     }
 
-    private DocumentContext preparePlaceholderSource(Request request) {
+    private String requestJson(Request request) {
         String json = "{}";
         if (METHODS_WITH_CONTENT.contains(request.getMethod())) {
             if (!request.contentTypeHeader().isPresent()
@@ -76,9 +84,12 @@ public class JsonBodyTransformer extends ResponseTransformer {
         } else {
             LOG.debug("skip request parsing due to method '{}'", request.getMethod());
         }
+        return json;
+    }
 
+    private DocumentContext preparePlaceholderSource(Request request, String json) {
         List<String> urlParts = Placeholders.splitUrl(request.getUrl());
         DocumentContext result = Placeholders.documentContextOf(json);
-        return result.put("$", "urlParts", urlParts);
+        return result.put("$", URL_PARTS, urlParts);
     }
 }
@@ -0,0 +1,44 @@
+package com.ninecookies.wiremock.extensions;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Represents a scheduled callback attempt that is not yet due, registered in {@link PendingCallbacks}.
+ *
+ * @author M.Scheepers
+ * @since 0.5.0
+ */
+public class PendingCallback {
+    /**
+     * The unique identifier of the callback that stays the same for all attempts.
+     */
+    public String id;
+    /**
+     * The type of the callback, either one of {@code http}, {@code sns} or {@code sqs}.
+     */
+    public String type;
+    /**
+     * The callback target, either one of HTTP URL, SNS topic or SQS queue.
+     */
+    public String target;
+    /**
+     * The epoch milliseconds of the simulated clock when the callback is due.
+     */
+    public long due;
+    /**
+     * The attempt the callback is scheduled for starting with {@code 1}.
+     */
+    public int attempt;
+
+    @JsonIgnore
+    long sequence;
+    @JsonIgnore
+    AbstractCallbackHandler<?> handler;
+    @JsonIgnore
+    ScheduledExecutorService executor;
+    @JsonIgnore
+    volatile ScheduledFuture<?> future;
+}
@@ -0,0 +1,280 @@
+package com.ninecookies.wiremock.extensions;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import com.ninecookies.wiremock.extensions.util.Metrics;
+import com.ninecookies.wiremock.extensions.util.SimulatedClock;
+
+/**
+ * Implements the index of callbacks that are scheduled but not yet due.
+ * <p>
+ * All callback attempts are scheduled through this index so that pending callbacks can be inspected, cancelled or
+ * fired immediately. A callback is removed from the index once it becomes due, is cancelled or fired. Due times are
+ * based on the {@link SimulatedClock} so that pending callbacks can be fast-forwarded by advancing it.
+ *
+ * @author M.Scheepers
+ * @since 0.5.0
+ */
+public class PendingCallbacks {
+
+    private static final String METRICS_PREFIX = "callback.pending.";
+    private static final PendingCallbacks INSTANCE = new PendingCallbacks();
+
+    static {
+        Metrics.gauge(METRICS_PREFIX + "size", INSTANCE::size);
+    }
+
+    private final Map<String, PendingCallback> pending = new ConcurrentHashMap<>();
+    // insertion order to find the oldest pending callbacks
+    private final ConcurrentNavigableMap<Long, PendingCallback> order = new ConcurrentSkipListMap<>();
+    private final Map<String, AtomicInteger> sizes = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    // visible for testing
+    PendingCallbacks() {
+    }
+
+    /**
+     * Schedules the specified {@code handler} and registers it as pending callback.
+     *
+     * @param handler the {@link AbstractCallbackHandler} to schedule.
+     * @param executor the {@link ScheduledExecutorService} to schedule the handler with.
+     * @param delay the delay in milliseconds.
+     * @param attempt the attempt the handler is scheduled for starting with {@code 1}.
+     */
+    public void schedule(AbstractCallbackHandler<?> handler, ScheduledExecutorService executor, long delay,
+            int attempt) {
+        PendingCallback entry = new PendingCallback();
+        entry.id = handler.getId();
+        entry.type = handler.getCallbackType();
+        entry.target = handler.getTarget();
+        entry.due = SimulatedClock.getInstance().millis() + delay;
+        entry.attempt = attempt;
+        entry.handler = handler;
+        entry.executor = executor;
+        add(entry);
+        try {
+            entry.future = executor.schedule(() -> run(entry), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // the executor is shutting down, e.g. a retry of a callback drained during shutdown
+            if (remove(entry)) {
+                store(entry, CallbackStore.getInstance());
+            }
+        }
+    }
+
+    private void add(PendingCallback entry) {
+        entry.sequence = sequence.incrementAndGet();
+        order.put(entry.sequence, entry);
+        sizeOf(entry.type).incrementAndGet();
+        pending.put(entry.id, entry);
+    }
+
+    private boolean remove(PendingCallback entry) {
+        if (!pending.remove(entry.id, entry)) {
+            return false;
+        }
+        order.remove(entry.sequence);
+        sizeOf(entry.type).decrementAndGet();
+        return true;
+    }
+
+    private AtomicInteger sizeOf(String type) {
+        return sizes.computeIfAbsent(String.valueOf(type), t -> new AtomicInteger());
+    }
+
+    private void run(PendingCallback entry) {
+        // only run if not cancelled or fired in the meantime
+        if (remove(entry)) {
+            entry.handler.run();
+        }
+    }
+
+    /**
+     * Gets the pending callback with the specified {@code id}.
+     *
+     * @param id the identifier of the callback.
+     * @return the {@link PendingCallback} or {@code null} if there is no pending callback with the specified
+     *         {@code id}.
+     */
+    public PendingCallback get(String id) {
+        return pending.get(id);
+    }
+
+    /**
+     * Gets all pending callbacks matching the specified {@code filter} ordered by their due time.
+     *
+     * @param filter the {@link Predicate} to filter the pending callbacks.
+     * @return a {@link List} of matching {@link PendingCallback}s.
+     */
+    public List<PendingCallback> find(Predicate<PendingCallback> filter) {
+        return pending.values().stream()
+                .filter(filter)
+                .sorted(Comparator.comparingLong(p -> p.due))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Counts the pending callbacks matching the specified {@code filter} by their target.
+     *
+     * @param filter the {@link Predicate} to filter the pending callbacks.
+     * @return a {@link Map} of targets and the number of their pending callbacks.
+     */
+    public Map<String, Long> countByTarget(Predicate<PendingCallback> filter) {
+        return pending.values().stream()
+                .filter(filter)
+                .collect(Collectors.groupingBy(p -> String.valueOf(p.target), Collectors.counting()));
+    }
+
+    /**
+     * Cancels all pending callbacks matching the specified {@code filter}.
+     *
+     * @param filter the {@link Predicate} to filter the pending callbacks.
+     * @return a {@link List} of the cancelled {@link PendingCallback}s.
+     */
+    public List<PendingCallback> cancel(Predicate<PendingCallback> filter) {
+        List<PendingCallback> result = new ArrayList<>();
+        for (PendingCallback entry : find(filter)) {
+            if (remove(entry)) {
+                cancelFuture(entry);
+                entry.handler.cancel();
+                Metrics.increment(METRICS_PREFIX + "cancelled");
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Fires all pending callbacks matching the specified {@code filter} immediately.
+     *
+     * @param filter the {@link Predicate} to filter the pending callbacks.
+     * @return a {@link List} of the fired {@link PendingCallback}s.
+     */
+    public List<PendingCallback> fire(Predicate<PendingCallback> filter) {
+        List<PendingCallback> result = new ArrayList<>();
+        for (PendingCallback entry : find(filter)) {
+            if (remove(entry)) {
+                cancelFuture(entry);
+                entry.executor.execute(entry.handler);
+                Metrics.increment(METRICS_PREFIX + "fired");
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes all pending callbacks matching the specified {@code filter} and hands them over to the specified
+     * {@code store} to be recovered later.
+     *
+     * @param filter the {@link Predicate} to filter the pending callbacks.
+     * @param store the {@link CallbackStore} to hand the callbacks over to.
+     * @return the number of stored callbacks.
+     */
+    public int store(Predicate<PendingCallback> filter, CallbackStore store) {
+        int result = 0;
+        for (PendingCallback entry : find(filter)) {
+            if (remove(entry)) {
+                cancelFuture(entry);
+                if (store(entry, store)) {
+                    result++;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean store(PendingCallback entry, CallbackStore store) {
+        boolean result = store.persist(entry.id, entry.type, entry.due, entry.attempt,
+                entry.handler.readCallbackJson());
+        entry.handler.dispose();
+        Metrics.increment(METRICS_PREFIX + (result ? "stored" : "dropped"));
+        return result;
+    }
+
+    /**
+     * Aligns all pending callbacks with the {@link SimulatedClock} after it was changed. Callbacks that became due are
+     * fired in bulk and all others are rescheduled with their remaining delay.
+     *
+     * @return a {@link List} of the fired {@link PendingCallback}s.
+     */
+    public List<PendingCallback> reschedule() {
+        long now = SimulatedClock.getInstance().millis();
+        List<PendingCallback> result = fire(p -> p.due <= now);
+        for (PendingCallback entry : find(p -> p.due > now)) {
+            ScheduledFuture<?> future = entry.future;
+            // tasks that already started or were cancelled are left untouched
+            if (future != null && future.cancel(false)) {
+                entry.future = entry.executor.schedule(() -> run(entry), entry.due - now, TimeUnit.MILLISECONDS);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Cancels the oldest pending callback of the specified {@code type}.
+     *
+     * @param type the callback type or {@code null} to cancel the oldest pending callback of any type.
+     * @return the cancelled {@link PendingCallback} or {@code null} if there is no pending callback.
+     */
+    public PendingCallback cancelOldest(String type) {
+        for (PendingCallback entry : order.values()) {
+            if ((type == null || type.equals(entry.type)) && remove(entry)) {
+                cancelFuture(entry);
+                entry.handler.cancel();
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the number of pending callbacks.
+     *
+     * @return the number of pending callbacks.
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * Gets the number of pending callbacks of the specified {@code type}.
+     *
+     * @param type the callback type.
+     * @return the number of pending callbacks of the specified type.
+     */
+    public int size(String type) {
+        return sizeOf(type).get();
+    }
+
+    private static void cancelFuture(PendingCallback entry) {
+        // the future might not be assigned yet, the scheduled task won't run anyway once removed from the index
+        if (entry.future != null) {
+            entry.future.cancel(false);
+        }
+    }
+
+    /**
+     * Gets the pending callbacks instance.
+     *
+     * @return the {@link PendingCallbacks} instance.
+     */
+    public static PendingCallbacks getInstance() {
+        return INSTANCE;
+    }
+}
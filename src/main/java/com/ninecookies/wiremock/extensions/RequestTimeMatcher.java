@@ -1,37 +1,218 @@
 package com.ninecookies.wiremock.extensions;
 
+import java.lang.ref.WeakReference;
 import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.tomakehurst.wiremock.admin.Router;
+import com.github.tomakehurst.wiremock.common.Errors;
+import com.github.tomakehurst.wiremock.common.InvalidInputException;
+import com.github.tomakehurst.wiremock.extension.AdminApiExtension;
 import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.StubLifecycleListener;
 import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.matching.CustomMatcherDefinition;
 import com.github.tomakehurst.wiremock.matching.MatchResult;
 import com.github.tomakehurst.wiremock.matching.RequestMatcherExtension;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.ninecookies.wiremock.extensions.util.Metrics;
+import com.ninecookies.wiremock.extensions.util.Regex;
+import com.ninecookies.wiremock.extensions.util.Regex.MatchTimeoutException;
+import com.ninecookies.wiremock.extensions.util.SimulatedClock;
 import com.ninecookies.wiremock.extensions.util.Strings;
 
 /**
  * Extends the {@link RequestMatcherExtension} and provides the ability to match the UTC request time against a provided
- * regular expression.
+ * regular expression and/or a structured {@link TimeWindow}.
+ * <p>
+ * The request time is taken from the {@link SimulatedClock} and thus follows advances of the simulated time.
+ * <p>
+ * Since WireMock evaluates the matcher for every request against every stub using it, compiled patterns and time
+ * windows are cached and the request time is determined only once per request.
+ * <p>
+ * To protect the request threads from catastrophic backtracking this class implements the
+ * {@link StubLifecycleListener} interface and rejects stubs with invalid patterns, invalid time windows or patterns
+ * with nested quantifiers. In addition every pattern evaluation is aborted once it exceeds the configured
+ * {@code PATTERN_MATCH_TIMEOUT} and slow or aborted evaluations are counted by metrics exposed through the
+ * {@link AdminApiExtension} route {@code /__admin/request-time-matcher/metrics}.
  *
  * @author M.Scheepers
  * @since 0.0.7
  */
-public class RequestTimeMatcher extends RequestMatcherExtension {
+public class RequestTimeMatcher extends RequestMatcherExtension
+        implements StubLifecycleListener, AdminApiExtension {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RequestTimeMatcher.class);
+    private static final String NAME = "request-time-matcher";
+    private static final String METRICS_PREFIX = NAME + ".";
+    private static final long SLOW_MATCH_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    // visible for testing
+    static final int MAX_CACHED_PATTERNS = 1_000;
+
+    private static final Map<String, Pattern> PATTERNS = new ConcurrentHashMap<>();
+    // keyed by the text of the criteria as hashing the mutable parameters would cover the pattern as well
+    private static final Map<String, TimeWindow> TIME_WINDOWS = new ConcurrentHashMap<>();
+    // stubs are matched sequentially within the thread serving the request
+    private static final ThreadLocal<RequestTime> REQUEST_TIME = new ThreadLocal<>();
+
+    private static final class RequestTime {
+        // don't keep the last request of a thread alive
+        private final WeakReference<Request> request;
+        private final long millis;
+        private String text;
+
+        private RequestTime(Request request, long millis) {
+            this.request = new WeakReference<>(request);
+            this.millis = millis;
+        }
+
+        private String text() {
+            if (text == null) {
+                text = Instant.ofEpochMilli(millis).toString();
+            }
+            return text;
+        }
+    }
 
     @Override
     public String getName() {
-        return "request-time-matcher";
+        return NAME;
+    }
+
+    @Override
+    public void contributeAdminApiRoutes(Router router) {
+        router.add(RequestMethod.GET, "/" + NAME + "/metrics",
+                (admin, request, pathParams) -> ResponseDefinition.okForJson(Metrics.snapshot(METRICS_PREFIX)));
     }
 
     @Override
     public MatchResult match(Request request, Parameters parameters) {
-        if (!parameters.containsKey("pattern")) {
+        String pattern = parameters.containsKey("pattern") ? parameters.getString("pattern") : null;
+        boolean hasTimeWindow = TimeWindow.isDefinedBy(parameters);
+        if (Strings.isNullOrEmpty(pattern) && !hasTimeWindow) {
             return MatchResult.of(false);
         }
-        String pattern = parameters.getString("pattern");
-        if (Strings.isNullOrEmpty(pattern)) {
+        RequestTime requestTime = requestTimeOf(request);
+        if (hasTimeWindow && !timeWindowOf(parameters).matches(requestTime.millis)) {
             return MatchResult.of(false);
         }
-        return MatchResult.of((Pattern.matches(pattern, Instant.now().toString())));
+        return MatchResult.of(Strings.isNullOrEmpty(pattern) || matches(pattern, requestTime.text()));
+    }
+
+    private static boolean matches(String pattern, String requestTime) {
+        long timeout = TimeUnit.MILLISECONDS.toNanos(CallbackConfiguration.getInstance().getPatternMatchTimeout());
+        long start = System.nanoTime();
+        try {
+            return Regex.matches(compile(pattern), requestTime, timeout);
+        } catch (MatchTimeoutException e) {
+            Metrics.increment(METRICS_PREFIX + "timeouts");
+            LOG.warn("pattern '{}' aborted after {}ms - treated as no match", pattern,
+                    TimeUnit.NANOSECONDS.toMillis(timeout));
+            return false;
+        } finally {
+            if (System.nanoTime() - start > SLOW_MATCH_NANOS) {
+                Metrics.increment(METRICS_PREFIX + "slow");
+            }
+        }
+    }
+
+    @Override
+    public void beforeStubCreated(StubMapping stub) {
+        validate(stub);
+    }
+
+    @Override
+    public void afterStubCreated(StubMapping stub) {
+    }
+
+    @Override
+    public void beforeStubEdited(StubMapping oldStub, StubMapping newStub) {
+        validate(newStub);
+    }
+
+    @Override
+    public void afterStubEdited(StubMapping oldStub, StubMapping newStub) {
+    }
+
+    @Override
+    public void beforeStubRemoved(StubMapping stub) {
+    }
+
+    @Override
+    public void afterStubRemoved(StubMapping stub) {
+    }
+
+    @Override
+    public void beforeStubsReset() {
+    }
+
+    @Override
+    public void afterStubsReset() {
+    }
+
+    private static void validate(StubMapping stub) {
+        CustomMatcherDefinition matcher = (stub.getRequest() == null) ? null : stub.getRequest().getCustomMatcher();
+        if (matcher == null || !NAME.equals(matcher.getName()) || matcher.getParameters() == null) {
+            return;
+        }
+        Parameters parameters = matcher.getParameters();
+        String pattern = parameters.containsKey("pattern") ? parameters.getString("pattern") : null;
+        try {
+            if (!Strings.isNullOrEmpty(pattern)) {
+                compile(pattern);
+                if (Regex.hasNestedQuantifier(pattern)) {
+                    throw new IllegalArgumentException("pattern '" + pattern
+                            + "' contains nested quantifiers that may cause catastrophic backtracking");
+                }
+            }
+            if (TimeWindow.isDefinedBy(parameters)) {
+                timeWindowOf(parameters);
+            }
+        } catch (IllegalArgumentException e) {
+            // a PatternSyntaxException is an IllegalArgumentException as well
+            Metrics.increment(METRICS_PREFIX + "rejected");
+            LOG.warn("reject stub '{}' - {}", stub.getId(), e.getMessage());
+            throw new InvalidInputException(Errors.validation("/request/customMatcher/parameters", e.getMessage()));
+        }
+    }
+
+    // visible for testing
+    static Pattern compile(String pattern) {
+        return cached(PATTERNS, pattern, Pattern::compile);
+    }
+
+    private static TimeWindow timeWindowOf(Parameters parameters) {
+        return cached(TIME_WINDOWS, TimeWindow.keyOf(parameters), key -> TimeWindow.of(parameters));
+    }
+
+    private static <K, V> V cached(Map<K, V> cache, K key, Function<K, V> creator) {
+        V result = cache.get(key);
+        if (result == null) {
+            // entries of removed stubs are never evicted otherwise, so start over once the bound is reached
+            if (cache.size() >= MAX_CACHED_PATTERNS) {
+                cache.clear();
+            }
+            result = cache.computeIfAbsent(key, creator);
+        }
+        return result;
+    }
+
+    private static RequestTime requestTimeOf(Request request) {
+        RequestTime result = REQUEST_TIME.get();
+        if (result == null || result.request.get() != request) {
+            result = new RequestTime(request, SimulatedClock.getInstance().millis());
+            REQUEST_TIME.set(result);
+        }
+        return result;
     }
 }
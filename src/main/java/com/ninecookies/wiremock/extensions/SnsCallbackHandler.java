@@ -1,7 +1,6 @@
 package com.ninecookies.wiremock.extensions;
 
 import java.io.File;
-import java.util.concurrent.ScheduledExecutorService;
 
 import com.github.tomakehurst.wiremock.common.Json;
 
@@ -11,14 +10,20 @@ import com.github.tomakehurst.wiremock.common.Json;
  */
 public class SnsCallbackHandler extends AbstractCallbackHandler<CallbackDefinition> {
 
-    private SnsCallbackHandler(ScheduledExecutorService executor, File callbackFile) {
-        super(executor, callbackFile, CallbackDefinition.class);
+    private final CallbackRuntime runtime;
+
+    private SnsCallbackHandler(CallbackRuntime runtime, File callbackFile) {
+        super(runtime.getExecutor(), callbackFile, CallbackDefinition.class);
+        this.runtime = runtime;
     }
 
-    private static SnsMessagePublisher publisher = new SnsMessagePublisher();
+    public static SnsCallbackHandler of(CallbackRuntime runtime, File callbackFile) {
+        return new SnsCallbackHandler(runtime, callbackFile);
+    }
 
-    public static Runnable of(ScheduledExecutorService executor, File callbackFile) {
-        return new SnsCallbackHandler(executor, callbackFile);
+    @Override
+    protected Bulkhead getBulkhead(CallbackDefinition callback) {
+        return Bulkhead.of("sns:" + callback.target, CallbackConfiguration.getInstance().getSnsMaxConcurrency());
     }
 
     @Override
@@ -30,7 +35,7 @@ public class SnsCallbackHandler extends AbstractCallbackHandler<CallbackDefiniti
             } else {
                 messageJson = Json.write(callback.data);
             }
-            publisher.sendMessage(callback.target, messageJson);
+            runtime.getSnsPublisher().sendMessage(callback.target, messageJson);
             getLog().info("message published to '{}'", callback.target);
         } catch (Exception e) {
             throw new RetryCallbackException(e);
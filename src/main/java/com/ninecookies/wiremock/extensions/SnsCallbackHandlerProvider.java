@@ -1,7 +1,6 @@
 package com.ninecookies.wiremock.extensions;
 
 import java.util.Map;
-import java.util.concurrent.ScheduledExecutorService;
 
 import com.github.tomakehurst.wiremock.common.Json;
 import com.github.tomakehurst.wiremock.core.Admin;
@@ -20,10 +19,10 @@ public class SnsCallbackHandlerProvider extends AbstractCallbackHandlerProvider
     /**
      * Initialize a new instance of the {@link SnsCallbackHandlerProvider} with the specified arguments.
      *
-     * @param executor the {@link ScheduledExecutorService} that runs the created handler.
+     * @param runtime the {@link CallbackRuntime} that runs the created handler.
      */
-    public SnsCallbackHandlerProvider(ScheduledExecutorService executor) {
-        super(SnsCallbackHandler::of, executor);
+    public SnsCallbackHandlerProvider(CallbackRuntime runtime) {
+        super("sns", SnsCallbackHandler::of, runtime);
     }
 
     @Override
@@ -25,7 +25,7 @@ public class SnsMessagePublisher {
         if (!configuration.isMessagingEnabled()) {
             throw new IllegalStateException("AWS SNS messaging is disabled due to lacking configuration.");
         }
-        this.client = configuration.createSnsClient();
+        this.client = configuration.getSnsClient();
         this.resolvedTopics = new ConcurrentHashMap<>();
     }
 
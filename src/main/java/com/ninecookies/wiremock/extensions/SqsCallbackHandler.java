@@ -1,7 +1,6 @@
 package com.ninecookies.wiremock.extensions;
 
 import java.io.File;
-import java.util.concurrent.ScheduledExecutorService;
 
 import javax.jms.JMSException;
 
@@ -13,12 +12,17 @@ import com.github.tomakehurst.wiremock.common.Json;
  */
 public class SqsCallbackHandler extends AbstractCallbackHandler<CallbackDefinition> {
 
-    private SqsCallbackHandler(ScheduledExecutorService executor, File callbackFile) {
-        super(executor, callbackFile, CallbackDefinition.class);
+    private SqsCallbackHandler(CallbackRuntime runtime, File callbackFile) {
+        super(runtime.getExecutor(), callbackFile, CallbackDefinition.class);
     }
 
-    public static Runnable of(ScheduledExecutorService executor, File callbackFile) {
-        return new SqsCallbackHandler(executor, callbackFile);
+    public static SqsCallbackHandler of(CallbackRuntime runtime, File callbackFile) {
+        return new SqsCallbackHandler(runtime, callbackFile);
+    }
+
+    @Override
+    protected Bulkhead getBulkhead(CallbackDefinition callback) {
+        return Bulkhead.of("sqs:" + callback.target, CallbackConfiguration.getInstance().getSqsMaxConcurrency());
     }
 
     @Override
@@ -1,7 +1,6 @@
 package com.ninecookies.wiremock.extensions;
 
 import java.util.Map;
-import java.util.concurrent.ScheduledExecutorService;
 
 import com.github.tomakehurst.wiremock.common.Json;
 import com.github.tomakehurst.wiremock.core.Admin;
@@ -21,10 +20,10 @@ public class SqsCallbackHandlerProvider extends AbstractCallbackHandlerProvider
     /**
      * Initialize a new instance of the {@link SqsCallbackHandlerProvider} with the specified arguments.
      *
-     * @param executor the {@link ScheduledExecutorService} that runs the created handler.
+     * @param runtime the {@link CallbackRuntime} that runs the created handler.
      */
-    public SqsCallbackHandlerProvider(ScheduledExecutorService executor) {
-        super(SqsCallbackHandler::of, executor);
+    public SqsCallbackHandlerProvider(CallbackRuntime runtime) {
+        super("sqs", SqsCallbackHandler::of, runtime);
     }
 
     @Override
@@ -0,0 +1,238 @@
+package com.ninecookies.wiremock.extensions;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.ninecookies.wiremock.extensions.util.Lists;
+
+/**
+ * Implements a structured UTC time window that is evaluated with plain arithmetic on epoch milliseconds.
+ * <p>
+ * A time window consists of the following optional criteria that all have to match:
+ * <ul>
+ * <li>{@code from} and {@code until} - the absolute ISO-8601 instants the window starts (inclusive) and ends
+ * (exclusive)
+ * <li>{@code timesOfDay} - one or more {@code HH:mm[:ss]-HH:mm[:ss]} ranges, ranges ending before they start span
+ * midnight and ranges ending when they start like {@code 00:00-00:00} cover the whole day
+ * <li>{@code daysOfWeek} - one or more days of the week like {@code MONDAY} or {@code MON}
+ * <li>{@code minuteModulo} and {@code minuteRemainder} - matches minutes of the hour with the specified remainder
+ * (default 0)
+ * <li>{@code secondModulo} and {@code secondRemainder} - matches seconds of the minute with the specified remainder
+ * (default 0)
+ * </ul>
+ *
+ * @author M.Scheepers
+ * @since 0.5.0
+ * @see RequestTimeMatcher
+ */
+public class TimeWindow {
+
+    private static final List<String> KEYS = Lists.listOf("from", "until", "timesOfDay", "daysOfWeek",
+            "minuteModulo", "minuteRemainder", "secondModulo", "secondRemainder");
+    private static final long MILLIS_PER_SECOND = 1_000;
+    private static final long MILLIS_PER_MINUTE = 60 * MILLIS_PER_SECOND;
+    private static final long MILLIS_PER_DAY = 24 * 60 * MILLIS_PER_MINUTE;
+    // 1970-01-01 was a thursday
+    private static final int EPOCH_DAY_OF_WEEK = DayOfWeek.THURSDAY.ordinal();
+
+    private final long from;
+    private final long until;
+    private final long[] rangeStarts;
+    private final long[] rangeEnds;
+    private final int daysOfWeek;
+    private final int minuteModulo;
+    private final int minuteRemainder;
+    private final int secondModulo;
+    private final int secondRemainder;
+
+    private TimeWindow(Map<String, Object> definition) {
+        from = parseInstant(definition.get("from"), Long.MIN_VALUE);
+        until = parseInstant(definition.get("until"), Long.MAX_VALUE);
+        List<String> ranges = values(definition.get("timesOfDay"));
+        rangeStarts = new long[ranges.size()];
+        rangeEnds = new long[ranges.size()];
+        for (int i = 0; i < ranges.size(); i++) {
+            String[] bounds = ranges.get(i).split("-");
+            if (bounds.length != 2) {
+                throw new IllegalArgumentException("invalid time of day range '" + ranges.get(i)
+                        + "' - expected HH:mm[:ss]-HH:mm[:ss]");
+            }
+            rangeStarts[i] = parseTimeOfDay(bounds[0]);
+            rangeEnds[i] = parseTimeOfDay(bounds[1]);
+        }
+        daysOfWeek = parseDaysOfWeek(values(definition.get("daysOfWeek")));
+        minuteModulo = parseInt(definition, "minuteModulo", 0, 1);
+        minuteRemainder = parseInt(definition, "minuteRemainder", 0, 0);
+        secondModulo = parseInt(definition, "secondModulo", 0, 1);
+        secondRemainder = parseInt(definition, "secondRemainder", 0, 0);
+        requireRemainderBelowModulo("minute", minuteModulo, minuteRemainder);
+        requireRemainderBelowModulo("second", secondModulo, secondRemainder);
+    }
+
+    /**
+     * Indicates whether the specified {@code epochMillis} are within this time window.
+     *
+     * @param epochMillis the UTC epoch milliseconds to test.
+     * @return {@code true} if all criteria of this window match; otherwise {@code false}.
+     */
+    public boolean matches(long epochMillis) {
+        if (epochMillis < from || epochMillis >= until) {
+            return false;
+        }
+        long millisOfDay = Math.floorMod(epochMillis, MILLIS_PER_DAY);
+        if (daysOfWeek != 0) {
+            int dayOfWeek = (int) Math.floorMod(Math.floorDiv(epochMillis, MILLIS_PER_DAY) + EPOCH_DAY_OF_WEEK, 7L);
+            if ((daysOfWeek & (1 << dayOfWeek)) == 0) {
+                return false;
+            }
+        }
+        if (minuteModulo > 0 && (millisOfDay / MILLIS_PER_MINUTE) % 60 % minuteModulo != minuteRemainder) {
+            return false;
+        }
+        if (secondModulo > 0 && (millisOfDay / MILLIS_PER_SECOND) % 60 % secondModulo != secondRemainder) {
+            return false;
+        }
+        return rangeStarts.length == 0 || isInRange(millisOfDay);
+    }
+
+    private boolean isInRange(long millisOfDay) {
+        for (int i = 0; i < rangeStarts.length; i++) {
+            long start = rangeStarts[i];
+            long end = rangeEnds[i];
+            // a range ending when it starts covers the whole day
+            boolean inRange = (start < end) ? (millisOfDay >= start && millisOfDay < end)
+                    : (millisOfDay >= start || millisOfDay < end);
+            if (inRange) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indicates whether the specified {@code definition} contains any time window criteria.
+     *
+     * @param definition the matcher parameters.
+     * @return {@code true} if the definition specifies a time window; otherwise {@code false}.
+     */
+    public static boolean isDefinedBy(Map<String, Object> definition) {
+        for (String key : KEYS) {
+            if (definition.containsKey(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets a text representing the time window criteria of the specified {@code definition} that is independent of
+     * any other matcher parameters, e.g. to cache the parsed time windows.
+     *
+     * @param definition the matcher parameters.
+     * @return the text of the time window criteria.
+     */
+    public static String keyOf(Map<String, Object> definition) {
+        StringBuilder result = new StringBuilder();
+        for (String key : KEYS) {
+            Object value = definition.get(key);
+            if (value != null) {
+                result.append(key).append('=').append(value).append(';');
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Creates a new {@link TimeWindow} from the specified {@code definition}.
+     *
+     * @param definition the matcher parameters specifying the time window criteria.
+     * @return a new {@link TimeWindow} ready to use.
+     * @throws IllegalArgumentException if any of the criteria is invalid.
+     */
+    public static TimeWindow of(Map<String, Object> definition) {
+        return new TimeWindow(definition);
+    }
+
+    private static long parseInstant(Object value, long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Instant.parse(value.toString()).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("invalid instant '" + value + "' - expected ISO-8601 instant", e);
+        }
+    }
+
+    private static long parseTimeOfDay(String value) {
+        try {
+            return LocalTime.parse(value.trim()).toNanoOfDay() / 1_000_000;
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("invalid time of day '" + value + "' - expected HH:mm[:ss]", e);
+        }
+    }
+
+    private static int parseDaysOfWeek(List<String> values) {
+        int result = 0;
+        for (String value : values) {
+            String name = value.trim().toUpperCase(Locale.ROOT);
+            DayOfWeek day = null;
+            for (DayOfWeek candidate : DayOfWeek.values()) {
+                if (candidate.name().equals(name) || (name.length() == 3 && candidate.name().startsWith(name))) {
+                    day = candidate;
+                }
+            }
+            if (day == null) {
+                throw new IllegalArgumentException("invalid day of week '" + value + "'");
+            }
+            result |= 1 << day.ordinal();
+        }
+        return result;
+    }
+
+    private static int parseInt(Map<String, Object> definition, String key, int defaultValue, int minimum) {
+        Object value = definition.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int result = Integer.parseInt(value.toString());
+            if (result < minimum) {
+                throw new IllegalArgumentException("invalid " + key + " '" + value + "' - must be at least "
+                        + minimum);
+            }
+            return result;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid " + key + " '" + value + "' - expected integer", e);
+        }
+    }
+
+    private static void requireRemainderBelowModulo(String unit, int modulo, int remainder) {
+        if (remainder > 0 && remainder >= Math.max(modulo, 1)) {
+            throw new IllegalArgumentException("invalid " + unit + "Remainder '" + remainder
+                    + "' - must be less than " + unit + "Modulo");
+        }
+    }
+
+    private static List<String> values(Object value) {
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        List<String> result = new ArrayList<>();
+        if (value instanceof List) {
+            for (Object element : (List<?>) value) {
+                result.add(String.valueOf(element));
+            }
+        } else {
+            result.add(value.toString());
+        }
+        return result;
+    }
+}
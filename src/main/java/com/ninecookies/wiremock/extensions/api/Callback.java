@@ -10,6 +10,8 @@ import com.ninecookies.wiremock.extensions.util.Strings;
  * @since 0.0.6
  * @see Callbacks
  * @see Authentication
+ * @see RetryPolicy
+ * @see Timeouts
  */
 public class Callback {
 
@@ -46,6 +48,16 @@ public class Callback {
      * If omitted all 2xx HTTP status results are considered successful.
      */
     public Integer expectedHttpStatus;
+    /**
+     * The optional retry policy for the callback.
+     * If omitted or partially specified the globally configured retry policy is used.
+     */
+    public RetryPolicy retryPolicy;
+    /**
+     * The optional timeouts for the callback.
+     * If omitted or partially specified the globally configured timeouts are used.
+     */
+    public Timeouts timeouts;
 
     /**
      * Create a new instance for an SQS message {@link Callback} definition.
@@ -0,0 +1,163 @@
+package com.ninecookies.wiremock.extensions.api;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.ninecookies.wiremock.extensions.util.Objects;
+
+/**
+ * Represents the retry policy of a callback that defines how often and with which back off a failed callback is
+ * retried.
+ * <p>
+ * Properties that are not specified for a certain callback are taken from the globally configured retry policy.
+ *
+ * @author M.Scheepers
+ * @since 0.5.0
+ * @see Callback
+ */
+public class RetryPolicy {
+
+    /**
+     * Defines the supported strategies to calculate the back off between retries.
+     */
+    public enum Strategy {
+        /**
+         * Every retry waits for the configured back off.
+         */
+        FIXED,
+        /**
+         * The back off is multiplied with the retry attempt.
+         */
+        LINEAR,
+        /**
+         * The back off is doubled with every retry attempt.
+         */
+        EXPONENTIAL
+    }
+
+    /**
+     * Defines the supported jitter modes applied to the calculated back off.
+     */
+    public enum Jitter {
+        /**
+         * The calculated back off is used as is.
+         */
+        NONE,
+        /**
+         * A random back off between zero and the calculated back off is used.
+         */
+        FULL,
+        /**
+         * A random back off between the configured back off and three times the previous back off is used.
+         */
+        DECORRELATED
+    }
+
+    /**
+     * The strategy to calculate the back off between retries.
+     */
+    public Strategy strategy;
+    /**
+     * The jitter mode applied to the calculated back off.
+     */
+    public Jitter jitter;
+    /**
+     * The maximum number of retries.
+     */
+    public Integer maxRetries;
+    /**
+     * The back off in milliseconds the calculation is based on.
+     */
+    public Integer backoff;
+    /**
+     * The maximum back off in milliseconds ({@code 0} means no cap).
+     */
+    public Integer maxBackoff;
+
+    /**
+     * Creates a new {@link RetryPolicy} that contains the values of this policy and uses the values of the specified
+     * {@code defaults} for all unspecified properties.
+     *
+     * @param defaults the {@link RetryPolicy} providing the default values.
+     * @return a new {@link RetryPolicy} instance ready to use.
+     */
+    public RetryPolicy withDefaults(RetryPolicy defaults) {
+        RetryPolicy result = new RetryPolicy();
+        result.strategy = Objects.coalesce(strategy, defaults.strategy);
+        result.jitter = Objects.coalesce(jitter, defaults.jitter);
+        result.maxRetries = Objects.coalesce(maxRetries, defaults.maxRetries);
+        result.backoff = Objects.coalesce(backoff, defaults.backoff);
+        result.maxBackoff = Objects.coalesce(maxBackoff, defaults.maxBackoff);
+        return result;
+    }
+
+    /**
+     * Calculates the back off in milliseconds for the specified retry {@code invocation}.
+     *
+     * @param invocation the retry attempt starting with {@code 1}.
+     * @param previousBackoff the back off used for the previous retry attempt or {@code 0} for the first attempt.
+     * @return the back off in milliseconds to wait before the retry.
+     */
+    public long nextBackoff(int invocation, long previousBackoff) {
+        long base = Math.max(0, backoff);
+        long cap = (maxBackoff != null && maxBackoff > 0) ? maxBackoff : Long.MAX_VALUE;
+        long result;
+        switch (strategy) {
+            case FIXED:
+                result = base;
+                break;
+            case EXPONENTIAL:
+                // limit the shift to avoid an overflow for large retry counts
+                result = base << Math.min(Math.max(invocation - 1, 0), 30);
+                break;
+            case LINEAR:
+            default:
+                result = base * invocation;
+                break;
+        }
+        result = Math.min(result, cap);
+        switch (jitter) {
+            case FULL:
+                return ThreadLocalRandom.current().nextLong(result + 1);
+            case DECORRELATED:
+                long upper = Math.min(cap, Math.max(base, Math.max(previousBackoff, base) * 3));
+                long lower = Math.min(base, upper);
+                return lower + ThreadLocalRandom.current().nextLong(upper - lower + 1);
+            case NONE:
+            default:
+                return result;
+        }
+    }
+
+    /**
+     * Creates a new instance of a {@link RetryPolicy} with the specified arguments.
+     *
+     * @param strategy the back off {@link Strategy}.
+     * @param jitter the {@link Jitter} mode.
+     * @param maxRetries the maximum number of retries.
+     * @param backoff the back off in milliseconds the calculation is based on.
+     * @param maxBackoff the maximum back off in milliseconds ({@code 0} means no cap).
+     * @return a new {@link RetryPolicy} instance ready to use.
+     */
+    public static RetryPolicy of(Strategy strategy, Jitter jitter, Integer maxRetries, Integer backoff,
+            Integer maxBackoff) {
+        RetryPolicy result = new RetryPolicy();
+        result.strategy = strategy;
+        result.jitter = jitter;
+        result.maxRetries = maxRetries;
+        result.backoff = backoff;
+        result.maxBackoff = maxBackoff;
+        return result;
+    }
+
+    /**
+     * Creates a new instance of a {@link RetryPolicy} with the specified arguments.
+     *
+     * @param strategy the back off {@link Strategy}.
+     * @param maxRetries the maximum number of retries.
+     * @param backoff the back off in milliseconds the calculation is based on.
+     * @return a new {@link RetryPolicy} instance ready to use.
+     */
+    public static RetryPolicy of(Strategy strategy, Integer maxRetries, Integer backoff) {
+        return of(strategy, null, maxRetries, backoff, null);
+    }
+}
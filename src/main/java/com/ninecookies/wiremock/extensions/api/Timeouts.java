@@ -0,0 +1,103 @@
+package com.ninecookies.wiremock.extensions.api;
+
+import com.ninecookies.wiremock.extensions.util.Objects;
+
+/**
+ * Represents the timeouts of a callback.
+ * <p>
+ * The connect, socket and request timeouts apply to HTTP callbacks only while the deadline limits the overall time
+ * including all retries for every callback type. Properties that are not specified for a certain callback are taken
+ * from the globally configured timeouts.
+ *
+ * @author M.Scheepers
+ * @since 0.5.0
+ * @see Callback
+ */
+public class Timeouts {
+
+    private Integer connectTimeout;
+    private Integer socketTimeout;
+    private Integer requestTimeout;
+    private Long deadline;
+
+    /**
+     * Gets the timeout in milliseconds until a connection is established.
+     *
+     * @return the connect timeout.
+     */
+    public Integer getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * Gets the timeout in milliseconds to wait for data after the connection was established.
+     *
+     * @return the socket timeout.
+     */
+    public Integer getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    /**
+     * Gets the timeout in milliseconds to wait for a connection from the connection pool.
+     *
+     * @return the request timeout.
+     */
+    public Integer getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    /**
+     * Gets the overall time in milliseconds starting with the first attempt after which no more retries are
+     * performed ({@code 0} means no deadline).
+     *
+     * @return the deadline.
+     */
+    public Long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Creates new {@link Timeouts} that contain the values of these timeouts and use the values of the specified
+     * {@code defaults} for all unspecified properties.
+     *
+     * @param defaults the {@link Timeouts} providing the default values.
+     * @return new {@link Timeouts} instance ready to use.
+     */
+    public Timeouts withDefaults(Timeouts defaults) {
+        Timeouts result = new Timeouts();
+        result.connectTimeout = Objects.coalesce(connectTimeout, defaults.connectTimeout);
+        result.socketTimeout = Objects.coalesce(socketTimeout, defaults.socketTimeout);
+        result.requestTimeout = Objects.coalesce(requestTimeout, defaults.requestTimeout);
+        result.deadline = Objects.coalesce(deadline, defaults.deadline);
+        return result;
+    }
+
+    /**
+     * Creates a new instance of {@link Timeouts} with the specified arguments.
+     *
+     * @param connectTimeout the timeout in milliseconds until a connection is established.
+     * @param socketTimeout the timeout in milliseconds to wait for data.
+     * @param requestTimeout the timeout in milliseconds to wait for a connection from the connection pool.
+     * @param deadline the overall time in milliseconds including all retries ({@code 0} means no deadline).
+     * @return new {@link Timeouts} instance ready to use.
+     */
+    public static Timeouts of(Integer connectTimeout, Integer socketTimeout, Integer requestTimeout, Long deadline) {
+        Timeouts result = new Timeouts();
+        result.connectTimeout = connectTimeout;
+        result.socketTimeout = socketTimeout;
+        result.requestTimeout = requestTimeout;
+        result.deadline = deadline;
+        return result;
+    }
+
+    /**
+     * Creates a new instance of {@link Timeouts} that only specifies the overall deadline.
+     *
+     * @param deadline the overall time in milliseconds including all retries ({@code 0} means no deadline).
+     * @return new {@link Timeouts} instance ready to use.
+     */
+    public static Timeouts ofDeadline(long deadline) {
+        return of(null, null, null, deadline);
+    }
+}
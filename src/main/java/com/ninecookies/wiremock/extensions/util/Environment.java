@@ -0,0 +1,112 @@
+package com.ninecookies.wiremock.extensions.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Provides an immutable snapshot of the environment variables used for the configuration and the
+ * {@code $(!ENV[...])} keyword.
+ * <p>
+ * The snapshot is taken on first use and consists of the following sources where later sources override earlier
+ * ones
+ * <ul>
+ * <li>the environment variables of the process
+ * <li>system properties prefixed with {@code env.} like {@code -Denv.MY_ENV_KEY=value}
+ * <li>overrides specified through {@link #setOverrides(Map)}
+ * </ul>
+ * Changes of the sources take effect with the next {@link #refresh()}. Since {@code $(!ENV[...])} keywords are resolved
+ * when their template is compiled, each refresh increments the {@link #getVersion()} that allows compiled values to
+ * detect that they are outdated.
+ *
+ * @author M.Scheepers
+ * @since 0.5.0
+ */
+public class Environment {
+
+    /**
+     * The prefix of system properties that override environment variables.
+     */
+    public static final String SYSTEM_PROPERTY_PREFIX = "env.";
+
+    private static final Environment INSTANCE = new Environment();
+
+    private volatile Map<String, String> overrides = Collections.emptyMap();
+    private volatile Map<String, String> snapshot;
+    private volatile long version;
+
+    // visible for testing
+    Environment() {
+        refresh();
+    }
+
+    /**
+     * Gets the value of the specified environment variable.
+     *
+     * @param name the name of the environment variable.
+     * @return the value or {@code null} if the variable is not defined.
+     */
+    public String get(String name) {
+        return snapshot.get(name);
+    }
+
+    /**
+     * Gets the version of the current snapshot.
+     *
+     * @return the version that is incremented with every {@link #refresh()}.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the overrides specified through {@link #setOverrides(Map)}.
+     *
+     * @return an immutable {@link Map} of the overridden variables.
+     */
+    public Map<String, String> getOverrides() {
+        return overrides;
+    }
+
+    /**
+     * Replaces the overrides of environment variables and refreshes the snapshot.
+     *
+     * @param overrides the {@link Map} of variables to override or {@code null} to remove all overrides.
+     * @return the number of variables in the refreshed snapshot.
+     */
+    public synchronized int setOverrides(Map<String, String> overrides) {
+        this.overrides = (overrides == null) ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new LinkedHashMap<>(overrides));
+        return refresh();
+    }
+
+    /**
+     * Takes a new snapshot of the environment variables, the {@code env.} system properties and the overrides.
+     *
+     * @return the number of variables in the refreshed snapshot.
+     */
+    public synchronized int refresh() {
+        Map<String, String> result = new HashMap<>(System.getenv());
+        for (Entry<Object, Object> property : System.getProperties().entrySet()) {
+            String key = String.valueOf(property.getKey());
+            if (key.startsWith(SYSTEM_PROPERTY_PREFIX) && key.length() > SYSTEM_PROPERTY_PREFIX.length()) {
+                result.put(key.substring(SYSTEM_PROPERTY_PREFIX.length()), String.valueOf(property.getValue()));
+            }
+        }
+        result.putAll(overrides);
+        snapshot = Collections.unmodifiableMap(result);
+        version++;
+        return result.size();
+    }
+
+    /**
+     * Gets the shared environment instance.
+     *
+     * @return the {@link Environment} instance.
+     */
+    public static Environment getInstance() {
+        return INSTANCE;
+    }
+}
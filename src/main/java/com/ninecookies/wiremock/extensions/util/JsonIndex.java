@@ -0,0 +1,280 @@
+package com.ninecookies.wiremock.extensions.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Implements an index of the value boundaries within a JSON document that allows to look up the raw JSON of a value
+ * by its path without materializing the document.
+ * <p>
+ * Objects and arrays are indexed lazily the first time a path navigates into them, so that a lookup scans only the
+ * containers along its path and each of them only once. The index supports plain paths like {@code order.items[0]}
+ * or {@code ['order'].items} relative to the document root. Paths with wildcards, deep scans, filters, slices or
+ * functions as well as invalid documents are not supported and result in {@code null} so that the caller can fall back
+ * to a JSON path evaluation. This includes unquoted tokens like {@code {"a": abc}} that lenient parsers accept as
+ * strings but must not be copied verbatim.
+ * <p>
+ * Instances are not thread-safe and are meant to be used for a single request.
+ *
+ * @author M.Scheepers
+ * @since 0.5.0
+ */
+public class JsonIndex {
+
+    private static final int NOT_SUPPORTED = -2;
+    private static final Pattern NUMBER = Pattern.compile("-?(0|[1-9]\\d*)(\\.\\d+)?([eE][+-]?\\d+)?");
+
+    private final String json;
+    private final Map<Integer, Map<String, int[]>> objects = new HashMap<>();
+    private final Map<Integer, List<int[]>> arrays = new HashMap<>();
+
+    private JsonIndex(String json) {
+        this.json = json;
+    }
+
+    /**
+     * Creates a new {@link JsonIndex} for the specified {@code json} document.
+     *
+     * @param json the JSON document to index.
+     * @return a new {@link JsonIndex}.
+     */
+    public static JsonIndex of(String json) {
+        return new JsonIndex(json);
+    }
+
+    /**
+     * Finds the raw JSON of the value at the specified {@code path}.
+     *
+     * @param path the path relative to the document root without leading {@code $.}.
+     * @return the raw JSON of the value as contained in the document or {@code null} if the path is not supported, the
+     *         value does not exist or the document is invalid.
+     */
+    public String find(String path) {
+        List<Object> segments = segmentsOf(path);
+        if (segments == null || segments.isEmpty()) {
+            return null;
+        }
+        try {
+            int start = skipWhitespace(0);
+            int end = -1;
+            for (Object segment : segments) {
+                int[] range = (segment instanceof String) ? member(start, (String) segment)
+                        : element(start, (Integer) segment);
+                if (range == null) {
+                    return null;
+                }
+                start = range[0];
+                end = range[1];
+            }
+            return json.substring(start, end);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            // invalid document
+            return null;
+        }
+    }
+
+    private int[] member(int start, String name) {
+        if (start >= json.length() || json.charAt(start) != '{') {
+            return null;
+        }
+        Map<String, int[]> members = objects.get(start);
+        if (members == null) {
+            members = indexObject(start);
+            objects.put(start, members);
+        }
+        return members.get(name);
+    }
+
+    private int[] element(int start, int index) {
+        if (start >= json.length() || json.charAt(start) != '[') {
+            return null;
+        }
+        List<int[]> elements = arrays.get(start);
+        if (elements == null) {
+            elements = indexArray(start);
+            arrays.put(start, elements);
+        }
+        return (index < elements.size()) ? elements.get(index) : null;
+    }
+
+    private Map<String, int[]> indexObject(int start) {
+        Map<String, int[]> result = new HashMap<>();
+        int position = skipWhitespace(start + 1);
+        if (json.charAt(position) == '}') {
+            return result;
+        }
+        while (true) {
+            expect(position, '"');
+            int keyEnd = skipString(position);
+            String key = json.substring(position + 1, keyEnd - 1);
+            position = skipWhitespace(keyEnd);
+            expect(position, ':');
+            int valueStart = skipWhitespace(position + 1);
+            int valueEnd = skipValue(valueStart);
+            // keys with escape sequences are not compared, duplicate keys resolve to the last one like in JSON path
+            if (key.indexOf('\\') < 0) {
+                result.put(key, new int[] { valueStart, valueEnd });
+            }
+            position = skipWhitespace(valueEnd);
+            if (json.charAt(position) == '}') {
+                return result;
+            }
+            expect(position, ',');
+            position = skipWhitespace(position + 1);
+        }
+    }
+
+    private List<int[]> indexArray(int start) {
+        List<int[]> result = new ArrayList<>();
+        int position = skipWhitespace(start + 1);
+        if (json.charAt(position) == ']') {
+            return result;
+        }
+        while (true) {
+            int valueEnd = skipValue(position);
+            result.add(new int[] { position, valueEnd });
+            position = skipWhitespace(valueEnd);
+            if (json.charAt(position) == ']') {
+                return result;
+            }
+            expect(position, ',');
+            position = skipWhitespace(position + 1);
+        }
+    }
+
+    private int skipValue(int start) {
+        char c = json.charAt(start);
+        if (c == '"') {
+            return skipString(start);
+        }
+        if (c == '{' || c == '[') {
+            return skipContainer(start);
+        }
+        int position = start;
+        while (position < json.length() && ",}] \t\r\n".indexOf(json.charAt(position)) < 0) {
+            position++;
+        }
+        String literal = json.substring(start, position);
+        if (!"true".equals(literal) && !"false".equals(literal) && !"null".equals(literal)
+                && !NUMBER.matcher(literal).matches()) {
+            throw new IllegalArgumentException("invalid value '" + literal + "' at " + start);
+        }
+        return position;
+    }
+
+    private int skipString(int start) {
+        for (int i = start + 1; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '"') {
+                return i + 1;
+            }
+        }
+        throw new IllegalArgumentException("unterminated string at " + start);
+    }
+
+    private int skipContainer(int start) {
+        int depth = 0;
+        for (int i = start; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (c == '"') {
+                i = skipString(i) - 1;
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if ((c == '}' || c == ']') && --depth == 0) {
+                return i + 1;
+            }
+        }
+        throw new IllegalArgumentException("unterminated container at " + start);
+    }
+
+    private int skipWhitespace(int start) {
+        int position = start;
+        while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private void expect(int position, char expected) {
+        if (json.charAt(position) != expected) {
+            throw new IllegalArgumentException("expected '" + expected + "' at " + position);
+        }
+    }
+
+    /**
+     * Splits the specified {@code path} into property names ({@link String}) and array indexes ({@link Integer}).
+     *
+     * @param path the path to split.
+     * @return the segments or {@code null} if the path is not supported.
+     */
+    private static List<Object> segmentsOf(String path) {
+        List<Object> result = new ArrayList<>();
+        int position = 0;
+        while (position < path.length()) {
+            char c = path.charAt(position);
+            if (c == '[') {
+                int end = bracketSegment(path, position, result);
+                if (end == NOT_SUPPORTED) {
+                    return null;
+                }
+                position = end;
+            } else {
+                if (c == '.') {
+                    // a dot must separate two segments, '..' is a deep scan
+                    if (position == 0 || position + 1 >= path.length() || path.charAt(position + 1) == '.') {
+                        return null;
+                    }
+                    position++;
+                }
+                int end = position;
+                while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+                    if ("*?@$()'\" ,:".indexOf(path.charAt(end)) >= 0) {
+                        return null;
+                    }
+                    end++;
+                }
+                if (end == position) {
+                    // e.g. '.[0]'
+                    return null;
+                }
+                result.add(path.substring(position, end));
+                position = end;
+            }
+        }
+        return result;
+    }
+
+    private static int bracketSegment(String path, int start, List<Object> segments) {
+        int end = path.indexOf(']', start);
+        if (end < 0) {
+            return NOT_SUPPORTED;
+        }
+        String content = path.substring(start + 1, end).trim();
+        if (content.length() >= 2 && (content.charAt(0) == '\'' || content.charAt(0) == '"')
+                && content.charAt(content.length() - 1) == content.charAt(0)) {
+            String name = content.substring(1, content.length() - 1);
+            if (name.indexOf('\'') >= 0 || name.indexOf('"') >= 0 || name.indexOf('\\') >= 0) {
+                // multiple properties or escaped quotes
+                return NOT_SUPPORTED;
+            }
+            segments.add(name);
+            return end + 1;
+        }
+        if (content.isEmpty() || content.length() > 9) {
+            return NOT_SUPPORTED;
+        }
+        for (int i = 0; i < content.length(); i++) {
+            if (!Character.isDigit(content.charAt(i))) {
+                // negative indexes, slices, wildcards and filters
+                return NOT_SUPPORTED;
+            }
+        }
+        segments.add(Integer.valueOf(content));
+        return end + 1;
+    }
+}
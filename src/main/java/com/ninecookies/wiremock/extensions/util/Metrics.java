@@ -0,0 +1,90 @@
+package com.ninecookies.wiremock.extensions.util;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Provides a simple registry for named counters and gauges to expose runtime information of the extensions.
+ *
+ * @author M.Scheepers
+ * @since 0.5.0
+ */
+public class Metrics {
+
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, Supplier<?>> GAUGES = new ConcurrentHashMap<>();
+
+    /**
+     * Increments the counter with the specified {@code name} by one.
+     *
+     * @param name the name of the counter.
+     */
+    public static void increment(String name) {
+        add(name, 1);
+    }
+
+    /**
+     * Adds the specified {@code value} to the counter with the specified {@code name}.
+     *
+     * @param name the name of the counter.
+     * @param value the value to add.
+     */
+    public static void add(String name, long value) {
+        COUNTERS.computeIfAbsent(name, n -> new LongAdder()).add(value);
+    }
+
+    /**
+     * Gets the current value of the counter with the specified {@code name}.
+     *
+     * @param name the name of the counter.
+     * @return the current value or {@code 0} if the counter does not exist.
+     */
+    public static long count(String name) {
+        LongAdder counter = COUNTERS.get(name);
+        return (counter == null) ? 0 : counter.sum();
+    }
+
+    /**
+     * Registers a gauge with the specified {@code name} whose value is provided by the specified {@code supplier}.
+     * An already registered gauge with the same name is replaced.
+     *
+     * @param name the name of the gauge.
+     * @param supplier the {@link Supplier} providing the current gauge value.
+     */
+    public static void gauge(String name, Supplier<?> supplier) {
+        GAUGES.put(name, supplier);
+    }
+
+    /**
+     * Gets a snapshot of all counters and gauges whose names start with the specified {@code prefix}.
+     *
+     * @param prefix the name prefix of the metrics to include.
+     * @return a {@link SortedMap} containing the metric names and their current values.
+     */
+    public static SortedMap<String, Object> snapshot(String prefix) {
+        SortedMap<String, Object> result = new TreeMap<>();
+        for (Entry<String, LongAdder> counter : COUNTERS.entrySet()) {
+            if (counter.getKey().startsWith(prefix)) {
+                result.put(counter.getKey(), counter.getValue().sum());
+            }
+        }
+        for (Entry<String, Supplier<?>> gauge : GAUGES.entrySet()) {
+            if (gauge.getKey().startsWith(prefix)) {
+                result.put(gauge.getKey(), gauge.getValue().get());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Protected constructor that avoids that new instances of this utility class are accidentally created but still
+     * allows this utility class to be inherited and enhanced.
+     */
+    protected Metrics() {
+    }
+}
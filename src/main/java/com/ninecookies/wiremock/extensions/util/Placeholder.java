@@ -1,10 +1,5 @@
 package com.ninecookies.wiremock.extensions.util;
 
-import static com.ninecookies.wiremock.extensions.util.Placeholders.PLACEHOLDER_PATTERN;
-
-import java.util.function.Predicate;
-import java.util.regex.Matcher;
-
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.InvalidPathException;
 
@@ -15,14 +10,16 @@ import com.jayway.jsonpath.InvalidPathException;
  * @since 0.0.6
  */
 public class Placeholder {
-    private static final Predicate<String> CONTAINS_PATTERN = PLACEHOLDER_PATTERN.asPredicate();
-
     private final String pattern;
     private String placeholder;
 
     private Placeholder(String pattern) {
+        this(pattern, normalize(pattern));
+    }
+
+    private Placeholder(String pattern, String placeholder) {
         this.pattern = pattern;
-        this.placeholder = normalize(pattern);
+        this.placeholder = placeholder;
     }
 
     /**
@@ -105,7 +102,7 @@ public class Placeholder {
         if (Strings.isNullOrEmpty(string)) {
             return false;
         }
-        return CONTAINS_PATTERN.test(string);
+        return Placeholders.Token.find(string, 0) != null;
     }
 
     /**
@@ -118,6 +115,17 @@ public class Placeholder {
         return new Placeholder(assertPattern(pattern));
     }
 
+    /**
+     * Create a new instance of {@link Placeholder} for the specified {@code token} that was already found and
+     * classified by the placeholder scanner, so that its text is not scanned again.
+     *
+     * @param token the JSON path {@link Placeholders.Token}.
+     * @return a new instance of {@link Placeholder};
+     */
+    static Placeholder ofToken(Placeholders.Token token) {
+        return new Placeholder(token.text, token.text);
+    }
+
     private static String assertPattern(String pattern) {
         if (Strings.isNullOrEmpty(pattern)) {
             throw new IllegalArgumentException("'pattern' must not be null or empty");
@@ -130,14 +138,13 @@ public class Placeholder {
 
     private String jsonPath() {
         // change $( to $. and remove trailing )
-        return placeholder.replaceFirst("\\$\\(", "\\$\\.")
-                .substring(0, placeholder.length() - 1);
+        return "$." + placeholder.substring(2, placeholder.length() - 1);
     }
 
-    private String normalize(String pattern) {
-        Matcher placeholder = PLACEHOLDER_PATTERN.matcher(pattern);
-        if (placeholder.find()) {
-            return placeholder.group();
+    private static String normalize(String pattern) {
+        Placeholders.Token placeholder = Placeholders.Token.find(pattern, 0);
+        if (placeholder != null) {
+            return placeholder.text;
         }
         return pattern;
     }
@@ -3,21 +3,24 @@ package com.ninecookies.wiremock.extensions.util;
 import static com.ninecookies.wiremock.extensions.util.Objects.describe;
 
 import java.io.UnsupportedEncodingException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.net.URLEncoder;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.temporal.ChronoUnit;
-import java.time.temporal.Temporal;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
-import java.util.function.UnaryOperator;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -26,12 +29,18 @@ import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.tomakehurst.wiremock.common.Json;
 import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.Configuration.ConfigurationBuilder;
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.Option;
+import com.jayway.jsonpath.spi.json.JacksonJsonProvider;
+import com.jayway.jsonpath.spi.json.JsonSmartJsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+import com.jayway.jsonpath.spi.mapper.JsonSmartMappingProvider;
 
 /**
  * Provides convenient methods to parse, populate and replace placeholders in template strings.
@@ -40,16 +49,33 @@ import com.jayway.jsonpath.Option;
  * @since 0.0.6
  */
 public class Placeholders {
-    private static final Logger LOG = LoggerFactory.getLogger(Placeholders.class);
-    private static final UnaryOperator<String> QUOTES = s -> String.format("\"%s\"", s);
-    private static final ConfigurationBuilder JSON_CONTEXT_CONFIGURATION_BUILDER = Configuration.builder()
-            .options(Option.DEFAULT_PATH_LEAF_TO_NULL)
-            .options(Option.SUPPRESS_EXCEPTIONS);
 
     /**
-     * Matches placeholders and keywords '\$\(.*?\)'
+     * Defines the JSON parsers available to parse the source documents placeholder values are looked up in.
+     * <p>
+     * The parser is initialized by the {@link Environment} variable {@code JSON_PARSER} (default
+     * {@code JSON_SMART}) and can be changed by {@link Placeholders#setJsonParser(JsonParser)}.
      */
-    static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\$\\(.*?\\)");
+    public enum JsonParser {
+        /**
+         * The JSON smart parser that is the default of JSON path.
+         */
+        JSON_SMART,
+        /**
+         * The Jackson parser using the shared {@link ObjectMapper} of WireMock.
+         */
+        JACKSON
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(Placeholders.class);
+    private static volatile JsonParser jsonParser = parseJsonParser(Environment.getInstance().get("JSON_PARSER"));
+    private static volatile Configuration jsonContextConfiguration = configurationOf(jsonParser);
+
+    // visible for testing
+    static final int MAX_CACHED_TEMPLATES = 1_000;
+    // large templates like response bodies would hold too much memory while scanning them is cheap anyway
+    static final int MAX_CACHED_TEMPLATE_LENGTH = 16 * 1_024;
+    private static final Map<String, List<Token>> TEMPLATES = new ConcurrentHashMap<>();
 
     // visible for testing
     /**
@@ -71,12 +97,56 @@ public class Placeholders {
     public static DocumentContext documentContextOf(String json) {
         DocumentContext result = null;
         if (json != null && json.trim().length() > 0) { // ? PARSE_CONTEXT.parse(json) : null;
-            result = JsonPath.parse(json, JSON_CONTEXT_CONFIGURATION_BUILDER.build());
+            result = JsonPath.parse(json, jsonContextConfiguration);
         }
         LOG.debug("documentContextOf('{}') -> '{}'", json, describe(result));
         return result;
     }
 
+    /**
+     * Gets the {@link JsonParser} used to parse source documents.
+     *
+     * @return the {@link JsonParser}.
+     */
+    public static JsonParser getJsonParser() {
+        return jsonParser;
+    }
+
+    /**
+     * Sets the {@link JsonParser} used to parse source documents.
+     *
+     * @param parser the {@link JsonParser} to use.
+     */
+    public static void setJsonParser(JsonParser parser) {
+        jsonContextConfiguration = configurationOf(parser);
+        jsonParser = parser;
+    }
+
+    // visible for testing
+    static JsonParser parseJsonParser(String value) {
+        if (!Strings.isNullOrEmpty(value)) {
+            try {
+                return JsonParser.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                LOG.error("invalid environment variable 'JSON_PARSER' value '{}'", value, e);
+            }
+        }
+        return JsonParser.JSON_SMART;
+    }
+
+    private static Configuration configurationOf(JsonParser parser) {
+        ConfigurationBuilder builder = Configuration.builder()
+                .options(Option.DEFAULT_PATH_LEAF_TO_NULL)
+                .options(Option.SUPPRESS_EXCEPTIONS);
+        if (parser == JsonParser.JACKSON) {
+            ObjectMapper mapper = Json.getObjectMapper();
+            builder.jsonProvider(new JacksonJsonProvider(mapper)).mappingProvider(new JacksonMappingProvider(mapper));
+        } else {
+            builder.jsonProvider(new JsonSmartJsonProvider()).mappingProvider(new JsonSmartMappingProvider());
+        }
+        return builder.build();
+    }
+
     /**
      * Splits the specified <i>url</i> by {@code /} and returns a list of URL parts.
      *
@@ -98,7 +168,7 @@ public class Placeholders {
      * @return the JSON result of the template with placeholders replaced by their related values.
      */
     public static String transformJson(String sourceJson, String templateJson) {
-        return transformJson(documentContextOf(sourceJson), templateJson);
+        return transformJson(JsonIndex.of(sourceJson), () -> documentContextOf(sourceJson), templateJson);
     }
 
     /**
@@ -110,8 +180,53 @@ public class Placeholders {
      * @return the JSON result of the template with placeholders replaced by their related values.
      */
     public static String transformJson(DocumentContext sourceContext, String templateJson) {
-        Map<String, Object> placeholders = parsePlaceholders(templateJson, sourceContext);
-        return transformJson(placeholders, templateJson);
+        List<Token> tokens = compile(templateJson);
+        return render(templateJson, tokens, parsePlaceholders(templateJson, tokens, sourceContext));
+    }
+
+    /**
+     * Replaces all placeholders in the specified <i>templateJson</i> with the related values looked up in the source
+     * document.
+     * <p>
+     * Placeholders substituting whole JSON values like {@code "$(request.order)"} are satisfied by copying the raw JSON
+     * found by the specified <i>sourceIndex</i> verbatim. The <i>sourceContext</i> is only requested for placeholders
+     * the index cannot resolve or that are embedded in strings, so that the source document is neither parsed nor
+     * serialized as long as all placeholders are resolved by the index.
+     *
+     * @param sourceIndex the {@link JsonIndex} of the source document or {@code null} to look up all placeholder
+     *            values in the <i>sourceContext</i>.
+     * @param sourceContext the {@link Supplier} of the source {@link DocumentContext} to look up placeholder values,
+     *            requested at most once.
+     * @param templateJson the template JSON string containing the placeholders.
+     * @return the JSON result of the template with placeholders replaced by their related values.
+     */
+    public static String transformJson(JsonIndex sourceIndex, Supplier<DocumentContext> sourceContext,
+            String templateJson) {
+        List<Token> tokens = compile(templateJson);
+        if (tokens.isEmpty()) {
+            return templateJson;
+        }
+        Supplier<DocumentContext> context = new Supplier<DocumentContext>() {
+            private DocumentContext value;
+            private boolean created;
+
+            @Override
+            public DocumentContext get() {
+                if (!created) {
+                    value = sourceContext.get();
+                    created = true;
+                }
+                return value;
+            }
+        };
+        return render(templateJson, tokens, token -> {
+            if (token.keyword != null) {
+                return new Value(token.invocation().value());
+            }
+            Supplier<Object> resolver = () -> populatePlaceholder(token, context.get());
+            String raw = (sourceIndex == null) ? null : sourceIndex.find(token.path());
+            return (raw == null) ? new Value(resolver.get()) : new Value(raw, resolver);
+        });
     }
 
     /**
@@ -122,18 +237,49 @@ public class Placeholders {
      * @return the JSON result of the template with placeholders replaced by their related values.
      */
     public static String transformJson(Map<String, Object> placeholders, String templateJson) {
-        String result = templateJson;
-        for (Entry<String, Object> placeholder : placeholders.entrySet()) {
-            String pattern = placeholder.getKey();
-            String value = String.valueOf(placeholder.getValue());
-            String quotedPattern = QUOTES.apply(pattern);
-            String jsonValue = Json.write(placeholder.getValue());
-            // first replace all occurrences of "$(property.path)" with it's JSON value
-            // and then check for in string replacements like "arbitrary text with $(embedded) placeholder"
-            result = result.replace(quotedPattern, jsonValue).replace(pattern, value);
-        }
-        LOG.debug("transformJson('{}', '{}') -> '{}'", placeholders, templateJson, result);
-        return result;
+        return render(templateJson, compile(templateJson), placeholders);
+    }
+
+    private static String render(String templateJson, List<Token> tokens, Map<String, Object> placeholders) {
+        if (placeholders.isEmpty()) {
+            return templateJson;
+        }
+        return render(templateJson, tokens,
+                token -> placeholders.containsKey(token.text) ? new Value(placeholders.get(token.text)) : null);
+    }
+
+    private static String render(String templateJson, List<Token> tokens, Function<Token, Value> resolver) {
+        if (tokens.isEmpty()) {
+            return templateJson;
+        }
+        StringBuilder result = new StringBuilder(templateJson.length() + 16 * tokens.size());
+        // each value is resolved once and serialized at most once per form no matter how often it is referenced
+        Map<String, Value> values = new HashMap<>();
+        int last = 0;
+        for (Token token : tokens) {
+            Value value = values.get(token.text);
+            if (value == null && !values.containsKey(token.text)) {
+                value = resolver.apply(token);
+                values.put(token.text, value);
+            }
+            if (value == null) {
+                // not to be replaced
+                continue;
+            }
+            // "$(property.path)" is replaced with its JSON value
+            // while in string replacements like "arbitrary text with $(embedded) placeholder" get the plain value
+            if (token.start > 0 && templateJson.charAt(token.start - 1) == '"'
+                    && token.end < templateJson.length() && templateJson.charAt(token.end) == '"') {
+                result.append(templateJson, last, token.start - 1).append(value.json());
+                last = token.end + 1;
+            } else {
+                result.append(templateJson, last, token.start).append(value.text());
+                last = token.end;
+            }
+        }
+        result.append(templateJson, last, templateJson.length());
+        LOG.debug("transformJson('{}', '{}') -> '{}'", values, templateJson, result);
+        return result.toString();
     }
 
     /**
@@ -146,11 +292,12 @@ public class Placeholders {
         if (value == null) {
             return null;
         }
-        Matcher isKey = KEYWORD_PATTERN.matcher(value);
-        if (isKey.matches()) {
-            LOG.debug(describe(isKey));
-            Keyword keyword = Keyword.of(isKey.group(1));
-            return String.valueOf(keyword.value(isKey.group(2)));
+        List<Token> tokens = compile(value);
+        if (tokens.size() == 1) {
+            Token token = tokens.get(0);
+            if (token.keyword != null && token.start == 0 && token.end == value.length()) {
+                return String.valueOf(token.invocation().value());
+            }
         }
         return value;
     }
@@ -209,31 +356,82 @@ public class Placeholders {
      * @return a {@link Map} containing entries for all found placeholders.
      */
     public static Map<String, Object> parsePlaceholders(String expression, DocumentContext sourceContext) {
+        return parsePlaceholders(expression, compile(expression), sourceContext);
+    }
+
+    private static Map<String, Object> parsePlaceholders(String expression, List<Token> tokens,
+            DocumentContext sourceContext) {
         Map<String, Object> result = new LinkedHashMap<>();
-        Matcher matcher = PLACEHOLDER_PATTERN.matcher(expression);
-        while (matcher.find()) {
-            String placeholder = matcher.group();
-            if (result.containsKey(placeholder)) {
+        for (Token token : tokens) {
+            if (result.containsKey(token.text)) {
                 continue;
             }
-            result.put(placeholder, populatePlaceholder(placeholder, sourceContext));
+            result.put(token.text, populatePlaceholder(token, sourceContext));
         }
         LOG.debug("parsePlaceholders('{}') -> '{}'", expression, result);
         return result;
     }
 
-    private static Object populatePlaceholder(String pattern, DocumentContext documentContext) {
+    /**
+     * Scans the specified {@code expression} for placeholders and keywords in a single pass.
+     *
+     * @param expression the {@link String} that may contain placeholders.
+     * @return a {@link List} of the found {@link Token}s in order of their occurrence.
+     */
+    static List<Token> tokenize(String expression) {
+        List<Token> result = new ArrayList<>();
+        Token token = Token.find(expression, 0);
+        while (token != null) {
+            result.add(token);
+            token = Token.find(expression, token.end);
+        }
+        return result;
+    }
+
+    /**
+     * Compiles the specified {@code expression} into its placeholder {@link Token}s with the arguments of all
+     * keywords parsed into their {@link Invocation}s.
+     * <p>
+     * Compiled expressions are cached, so that rendering the same template again only produces the values.
+     *
+     * @param expression the {@link String} that may contain placeholders.
+     * @return an immutable {@link List} of the found {@link Token}s in order of their occurrence.
+     * @throws IllegalArgumentException if any keyword has invalid arguments.
+     */
+    static List<Token> compile(String expression) {
+        if (expression.length() > MAX_CACHED_TEMPLATE_LENGTH) {
+            return compileTokens(expression);
+        }
+        List<Token> result = TEMPLATES.get(expression);
+        if (result == null) {
+            // entries of removed stubs are never evicted otherwise, so start over once the bound is reached
+            if (TEMPLATES.size() >= MAX_CACHED_TEMPLATES) {
+                TEMPLATES.clear();
+            }
+            result = TEMPLATES.computeIfAbsent(expression, Placeholders::compileTokens);
+        }
+        return result;
+    }
+
+    private static List<Token> compileTokens(String expression) {
+        List<Token> result = tokenize(expression);
+        for (Token token : result) {
+            if (token.keyword != null) {
+                token.invocation();
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static Object populatePlaceholder(Token token, DocumentContext documentContext) {
         Object result = null;
-        Matcher isKey = KEYWORD_PATTERN.matcher(pattern);
-        if (isKey.find()) {
-            LOG.debug(describe(isKey));
-            Keyword keyword = Keyword.of(isKey.group(1));
-            result = keyword.value(isKey.group(2));
+        if (token.keyword != null) {
+            result = token.invocation().value();
         } else if (documentContext != null) {
-            Placeholder placeholder = Placeholder.of(pattern);
-            result = placeholder.getValue(documentContext);
+            result = token.placeholder().getValue(documentContext);
         }
-        LOG.debug("populatePlaceholder('{}', '{}') -> '{}'", pattern, describe(documentContext), describe(result));
+        LOG.debug("populatePlaceholder('{}', '{}') -> '{}'", token.text, describe(documentContext),
+                describe(result));
         return result;
     }
 
@@ -245,14 +443,270 @@ public class Placeholders {
         }
     }
 
+    /**
+     * Represents a resolved placeholder value that is serialized lazily and only once into the forms required by the
+     * slots it is substituted into.
+     */
+    static final class Value {
+        private final Object value;
+        private final Supplier<Object> resolver;
+        private String text;
+        private String json;
+
+        Value(Object value) {
+            this.value = value;
+            this.resolver = null;
+        }
+
+        /**
+         * Initialize a new instance of the {@link Value} with the raw JSON copied from the source document.
+         *
+         * @param json the raw JSON of the value.
+         * @param resolver the {@link Supplier} of the value in case its plain text is required.
+         */
+        Value(String json, Supplier<Object> resolver) {
+            this.value = null;
+            this.resolver = resolver;
+            this.json = json;
+        }
+
+        /**
+         * Gets the plain text of this value as substituted within strings.
+         *
+         * @return the plain text of this value.
+         */
+        String text() {
+            if (text == null) {
+                text = String.valueOf((resolver == null) ? value : resolver.get());
+            }
+            return text;
+        }
+
+        /**
+         * Gets the JSON representation of this value as substituted for quoted placeholders.
+         *
+         * @return the JSON representation of this value.
+         */
+        String json() {
+            if (json == null) {
+                json = toJson(value);
+            }
+            return json;
+        }
+
+        @Override
+        public String toString() {
+            return (json != null) ? json : String.valueOf(value);
+        }
+
+        private static String toJson(Object value) {
+            if (value == null) {
+                return "null";
+            }
+            if (value instanceof String) {
+                return '"' + new String(JsonStringEncoder.getInstance().quoteAsString((String) value)) + '"';
+            }
+            if (value instanceof Boolean || value instanceof Integer || value instanceof Long
+                    || value instanceof BigInteger || value instanceof BigDecimal) {
+                return value.toString();
+            }
+            if (value instanceof Double && Double.isFinite((Double) value)) {
+                return value.toString();
+            }
+            // objects, arrays and anything else Jackson has an opinion about
+            return Json.write(value);
+        }
+    }
+
+    /**
+     * Represents a placeholder {@code $(...)} found in an expression along with its offsets and its classification
+     * as keyword or JSON path placeholder.
+     */
+    static final class Token {
+        /**
+         * The index of the leading {@code $} within the expression.
+         */
+        final int start;
+        /**
+         * The index after the closing {@code )} within the expression.
+         */
+        final int end;
+        /**
+         * The placeholder text including the enclosing {@code $(} and {@code )}.
+         */
+        final String text;
+        /**
+         * The {@link Keyword} or {@code null} if the placeholder represents a JSON path.
+         */
+        final Keyword keyword;
+        /**
+         * The keyword arguments following the keyword name or {@code null} if the placeholder represents a JSON path.
+         */
+        final String arguments;
+        // immutable once created, so concurrent creation on first use is harmless
+        private volatile Invocation invocation;
+        private volatile Placeholder placeholder;
+
+        private Token(String expression, int start, int end) {
+            this.start = start;
+            this.end = end;
+            this.text = expression.substring(start, end);
+            Keyword keyword = null;
+            String arguments = null;
+            if (text.charAt(2) == '!') {
+                // keywords may be followed by arbitrary suffixes like $(!RandomId)
+                keyword = Keyword.startingAt(text, 3);
+                arguments = (keyword == null) ? null : text.substring(3 + keyword.keyword().length(),
+                        text.length() - 1);
+            }
+            this.keyword = keyword;
+            this.arguments = arguments;
+        }
+
+        /**
+         * Gets the {@link Invocation} of this keyword token and parses the arguments on first use.
+         *
+         * @return the {@link Invocation} producing the keyword values.
+         * @throws IllegalArgumentException if the keyword arguments are invalid.
+         */
+        Invocation invocation() {
+            Invocation result = invocation;
+            if (result == null) {
+                result = keyword.invocation(arguments);
+                invocation = result;
+            }
+            return result;
+        }
+
+        /**
+         * Gets the {@link Placeholder} of this JSON path token without scanning its text again.
+         *
+         * @return the {@link Placeholder} to get the JSON path value with.
+         */
+        Placeholder placeholder() {
+            Placeholder result = placeholder;
+            if (result == null) {
+                result = Placeholder.ofToken(this);
+                placeholder = result;
+            }
+            return result;
+        }
+
+        /**
+         * Finds the next placeholder in the specified {@code expression} starting at the specified {@code from} index.
+         * <p>
+         * Parentheses are counted so that JSON path filter expressions like {@code $(items[?(@.x)])} are kept
+         * intact, while quoted literals within brackets are skipped. Like any other text, placeholders do not span
+         * multiple lines and a placeholder that is not closed on its line is ignored.
+         *
+         * @param expression the {@link String} to scan.
+         * @param from the index to start scanning at.
+         * @return the next {@link Token} or {@code null} if there is no further placeholder.
+         */
+        static Token find(String expression, int from) {
+            int start = expression.indexOf("$(", from);
+            while (start >= 0) {
+                int end = closingParenthesis(expression, start + 2);
+                if (end > 0) {
+                    return new Token(expression, start, end + 1);
+                }
+                start = expression.indexOf("$(", start + 2);
+            }
+            return null;
+        }
+
+        private static int closingParenthesis(String expression, int from) {
+            int parentheses = 1;
+            int brackets = 0;
+            char quote = 0;
+            for (int i = from; i < expression.length(); i++) {
+                char c = expression.charAt(i);
+                if (c == '\n' || c == '\r') {
+                    return -1;
+                }
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                    continue;
+                }
+                switch (c) {
+                    case '\'':
+                        if (brackets > 0) {
+                            quote = c;
+                        }
+                        break;
+                    case '[':
+                        brackets++;
+                        break;
+                    case ']':
+                        if (brackets > 0) {
+                            brackets--;
+                        }
+                        break;
+                    case '(':
+                        parentheses++;
+                        break;
+                    case ')':
+                        if (--parentheses == 0) {
+                            return i;
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Gets the JSON path of this placeholder relative to the document root without leading {@code $.}.
+         *
+         * @return the path of this placeholder.
+         */
+        String path() {
+            return text.substring(2, text.length() - 1);
+        }
+
+        @Override
+        public String toString() {
+            return "Token[start=" + start + ", end=" + end + ", text=" + text + ", keyword="
+                    + (keyword == null ? null : keyword.keyword()) + ", arguments=" + arguments + "]";
+        }
+    }
+
+    /**
+     * Represents a keyword with its arguments parsed once, so that producing a value is as cheap as possible.
+     */
+    @FunctionalInterface
+    interface Invocation {
+        /**
+         * Produces the keyword value.
+         *
+         * @return the keyword value.
+         */
+        Object value();
+    }
+
     // visible for testing
     static abstract class Keyword {
 
         public abstract String keyword();
 
-        public abstract Object value(String arguments);
+        /**
+         * Parses the specified keyword {@code arguments} into an {@link Invocation}.
+         *
+         * @param arguments the keyword arguments following the keyword name.
+         * @return the {@link Invocation} producing the keyword values.
+         * @throws IllegalArgumentException if the arguments are invalid.
+         */
+        abstract Invocation invocation(String arguments);
+
+        public Object value(String arguments) {
+            return invocation(arguments).value();
+        }
 
-        private static final Random RANDOM_GENERATOR = new Random();
+        private static final RandomSource RANDOM_GENERATOR = RandomSource.getInstance();
         static final Pattern HAS_BOUNDS = Pattern
                 .compile("\\[([\\+0-9 ]+)\\]|\\[([\\-\\+0-9 ]+),([\\-\\+0-9 ]+)\\]");
         private static final Pattern IS_CALCULATED = Pattern.compile("\\.plus\\[([HhMmSs]{1})([0-9\\-\\+]+)\\]");
@@ -271,45 +725,55 @@ public class Placeholders {
             }
         }
 
-        @SuppressWarnings("unchecked")
-        private static <T extends Temporal> T calculateIfRequired(String pattern, T temporal) {
+        private static Duration calculationOf(String pattern) {
             Matcher arguments = IS_CALCULATED.matcher(pattern);
             if (arguments.find()) {
-                return (T) temporal.plus(Duration.of(Long.parseLong(arguments.group(2)),
-                        stringToChronoUnit(arguments.group(1))));
+                return Duration.of(Long.parseLong(arguments.group(2)), stringToChronoUnit(arguments.group(1)));
             }
             if (pattern.startsWith(".plus[")) {
                 // unmatched calculation pattern
                 throw new IllegalArgumentException("invalid time calcuation pattern: '" + pattern + "'");
             }
-            return temporal;
+            return Duration.ZERO;
         }
 
-        private static final Function<String, OffsetDateTime> OFFSET_DATE_TIME_PROVIDER = s -> {
-            return calculateIfRequired(s, OffsetDateTime.now());
+        private static final Function<String, Invocation> OFFSET_DATE_TIME_INVOCATION = s -> {
+            long offset = calculationOf(s).toMillis();
+            return new ClockTickInvocation(offset, millis -> OffsetDateTime
+                    .ofInstant(Instant.ofEpochMilli(millis), SimulatedClock.getInstance().getZone()).toString());
         };
 
-        private static final Function<String, Instant> INSTANT_PROVIDER = s -> {
-            return calculateIfRequired(s, Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        private static final Function<String, Invocation> INSTANT_INVOCATION = s -> {
+            long offset = calculationOf(s).toMillis();
+            return new ClockTickInvocation(offset, millis -> Instant.ofEpochMilli(millis).toString());
         };
 
-        private static final Function<String, String> ENVIRONMENT_PROVIDER = s -> {
+        private static final Function<String, Invocation> TIMESTAMP_INVOCATION = s -> {
+            long offset = calculationOf(s).toMillis();
+            return () -> SimulatedClock.getInstance().millis() + offset;
+        };
+
+        private static final Function<String, Invocation> ENVIRONMENT_INVOCATION = s -> {
             Matcher argument = HAS_ARGUMENT.matcher(s);
             if (!argument.find()) {
                 throw new IllegalArgumentException("missing environment key: '" + s + "'");
             }
             String envKey = argument.group(1);
-            return System.getenv(envKey);
+            Environment environment = Environment.getInstance();
+            long version = environment.getVersion();
+            String value = environment.get(envKey);
+            // constant unless the environment was refreshed after the template was compiled
+            return () -> (environment.getVersion() == version) ? value : environment.get(envKey);
         };
 
-        private static final Function<String, Integer> RANDOM_PROVIDER = s -> {
+        private static final Function<String, Invocation> RANDOM_INVOCATION = s -> {
             Matcher argument = HAS_BOUNDS.matcher(s);
             if (argument.find()) {
                 if (argument.group(1) != null) {
                     // only max provided
                     // Note: nextInt(bound) : the upper bound (exclusive). Must be positive.
                     int max = Integer.parseInt(argument.group(1).trim()) + 1;
-                    return RANDOM_GENERATOR.nextInt(max);
+                    return () -> RANDOM_GENERATOR.nextInt(max);
                 }
                 // must be min and max provided otherwise
                 int min = Integer.parseInt(argument.group(2).trim());
@@ -317,23 +781,24 @@ public class Placeholders {
                 if (min > max) {
                     throw new IllegalArgumentException("invalid bounds: min '" + min + "' >= max '" + max + "'");
                 }
-                return RANDOM_GENERATOR.nextInt((max + 1) - min) + min;
+                return () -> RANDOM_GENERATOR.nextInt((max + 1) - min) + min;
             }
             // something invalid provided
             if (s.contains("[")) {
                 throw new IllegalArgumentException("invalid arguments for $(!Random): " + s);
             }
-            return RANDOM_GENERATOR.nextInt();
+            return RANDOM_GENERATOR::nextInt;
         };
 
-        private static final Keyword ENV = new SimpleKeyword("ENV", s -> ENVIRONMENT_PROVIDER.apply(s));
-        private static final Keyword UUID = new SimpleKeyword("UUID", s -> java.util.UUID.randomUUID().toString());
-        private static final Keyword RANDOM = new SimpleKeyword("Random", s -> RANDOM_PROVIDER.apply(s));
-        private static final Keyword INSTANT = new SimpleKeyword("Instant", s -> INSTANT_PROVIDER.apply(s).toString());
-        private static final Keyword TIMESTAMP = new SimpleKeyword("Timestamp",
-                s -> INSTANT_PROVIDER.apply(s).toEpochMilli());
+        private static final Invocation UUID_INVOCATION = RANDOM_GENERATOR::nextUuid;
+
+        private static final Keyword ENV = new SimpleKeyword("ENV", ENVIRONMENT_INVOCATION);
+        private static final Keyword UUID = new SimpleKeyword("UUID", s -> UUID_INVOCATION);
+        private static final Keyword RANDOM = new SimpleKeyword("Random", RANDOM_INVOCATION);
+        private static final Keyword INSTANT = new SimpleKeyword("Instant", INSTANT_INVOCATION);
+        private static final Keyword TIMESTAMP = new SimpleKeyword("Timestamp", TIMESTAMP_INVOCATION);
         private static final Keyword OFFSET_DATE_TIME = new SimpleKeyword("OffsetDateTime",
-                s -> OFFSET_DATE_TIME_PROVIDER.apply(s).toString());
+                OFFSET_DATE_TIME_INVOCATION);
         private static final Map<String, Keyword> VALUES = Collections.unmodifiableMap(Stream
                 .of(UUID, RANDOM, INSTANT, TIMESTAMP, OFFSET_DATE_TIME, ENV)
                 .collect(Collectors.toMap(Keyword::keyword, k -> k)));
@@ -347,13 +812,61 @@ public class Placeholders {
             return VALUES.get(key);
         }
 
+        private static Keyword startingAt(String text, int offset) {
+            Keyword result = null;
+            for (Keyword keyword : VALUES.values()) {
+                if (text.startsWith(keyword.keyword(), offset)
+                        && (result == null || keyword.keyword().length() > result.keyword().length())) {
+                    result = keyword;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Implements an {@link Invocation} that formats the current time of the {@link SimulatedClock} at most once
+         * per millisecond and shares the result between all threads rendering within the same millisecond.
+         */
+        private static final class ClockTickInvocation implements Invocation {
+            private final long offset;
+            private final LongFunction<String> formatter;
+            private volatile Tick last = new Tick(Long.MIN_VALUE, null);
+
+            private ClockTickInvocation(long offset, LongFunction<String> formatter) {
+                this.offset = offset;
+                this.formatter = formatter;
+            }
+
+            @Override
+            public Object value() {
+                long millis = SimulatedClock.getInstance().millis() + offset;
+                Tick tick = last;
+                if (tick.millis != millis) {
+                    // concurrent threads may format the same millisecond but always get an equal value
+                    tick = new Tick(millis, formatter.apply(millis));
+                    last = tick;
+                }
+                return tick.value;
+            }
+
+            private static final class Tick {
+                private final long millis;
+                private final String value;
+
+                private Tick(long millis, String value) {
+                    this.millis = millis;
+                    this.value = value;
+                }
+            }
+        }
+
         private static final class SimpleKeyword extends Keyword {
             private String keyword;
-            private Function<String, Object> valueProvider;
+            private Function<String, Invocation> invocationProvider;
 
-            SimpleKeyword(String keyword, Function<String, Object> valueProvider) {
+            SimpleKeyword(String keyword, Function<String, Invocation> invocationProvider) {
                 this.keyword = keyword;
-                this.valueProvider = valueProvider;
+                this.invocationProvider = invocationProvider;
             }
 
             @Override
@@ -362,8 +875,8 @@ public class Placeholders {
             }
 
             @Override
-            public Object value(String arguments) {
-                return valueProvider.apply(arguments);
+            Invocation invocation(String arguments) {
+                return invocationProvider.apply(arguments);
             }
         }
     }
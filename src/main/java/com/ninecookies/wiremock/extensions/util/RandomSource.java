@@ -0,0 +1,164 @@
+package com.ninecookies.wiremock.extensions.util;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provides the random numbers and UUIDs for the {@code $(!Random)} and {@code $(!UUID)} keywords.
+ * <p>
+ * By default random numbers are taken from the {@link ThreadLocalRandom} of the calling thread, so that request
+ * threads do not contend for a shared seed, and UUIDs are created by {@link UUID#randomUUID()}. The
+ * {@link UuidMode#FAST} mode creates version 4 UUIDs from the {@link ThreadLocalRandom} instead, which avoids the
+ * synchronized {@link java.security.SecureRandom} but must not be used where UUIDs have to be unpredictable.
+ * <p>
+ * For reproducible load tests a seed can be specified. Random numbers and UUIDs are then taken from a single seeded
+ * generator, so that the same sequence of keywords produces the same values.
+ * <p>
+ * The shared instance is configured on first use by the following {@link Environment} variables
+ * <ul>
+ * <li>{@code UUID_MODE} one of {@code SECURE} or {@code FAST} (default {@code SECURE})
+ * <li>{@code RANDOM_SEED} seed for reproducible values (default empty means unseeded)
+ * </ul>
+ *
+ * @author M.Scheepers
+ * @since 0.5.0
+ */
+public class RandomSource {
+
+    /**
+     * Defines how UUIDs are created.
+     */
+    public enum UuidMode {
+        /**
+         * Cryptographically strong UUIDs created by {@link UUID#randomUUID()}.
+         */
+        SECURE,
+        /**
+         * Version 4 UUIDs created from the {@link ThreadLocalRandom} of the calling thread.
+         */
+        FAST
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(RandomSource.class);
+
+    private static final class InstanceHolder {
+        private static final RandomSource INSTANCE = of(Environment.getInstance());
+    }
+
+    private volatile UuidMode uuidMode = UuidMode.SECURE;
+    private volatile Random seeded;
+
+    // visible for testing
+    RandomSource() {
+    }
+
+    // visible for testing
+    static RandomSource of(Environment environment) {
+        RandomSource result = new RandomSource();
+        String uuidMode = environment.get("UUID_MODE");
+        if (!Strings.isNullOrEmpty(uuidMode)) {
+            try {
+                result.setUuidMode(UuidMode.valueOf(uuidMode.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                LOG.error("invalid environment variable 'UUID_MODE' value '{}'", uuidMode, e);
+            }
+        }
+        String seed = environment.get("RANDOM_SEED");
+        if (!Strings.isNullOrEmpty(seed)) {
+            try {
+                result.setSeed(Long.parseLong(seed.trim()));
+                LOG.info("using seeded random keyword values");
+            } catch (NumberFormatException e) {
+                LOG.error("invalid environment variable 'RANDOM_SEED' value '{}'", seed, e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the current {@link UuidMode}.
+     *
+     * @return the {@link UuidMode}.
+     */
+    public UuidMode getUuidMode() {
+        return uuidMode;
+    }
+
+    /**
+     * Sets the {@link UuidMode} used for UUIDs if no seed is specified.
+     *
+     * @param uuidMode the {@link UuidMode}.
+     */
+    public void setUuidMode(UuidMode uuidMode) {
+        this.uuidMode = uuidMode;
+    }
+
+    /**
+     * Sets the seed of the random numbers and UUIDs.
+     *
+     * @param seed the seed or {@code null} to use unseeded random numbers and UUIDs.
+     */
+    public void setSeed(Long seed) {
+        this.seeded = (seed == null) ? null : new Random(seed);
+    }
+
+    /**
+     * Gets a random {@code int} value.
+     *
+     * @return a random {@code int} value.
+     */
+    public int nextInt() {
+        Random random = seeded;
+        return (random == null) ? ThreadLocalRandom.current().nextInt() : random.nextInt();
+    }
+
+    /**
+     * Gets a random {@code int} value between zero (inclusive) and the specified {@code bound} (exclusive).
+     *
+     * @param bound the upper bound (exclusive), must be positive.
+     * @return a random {@code int} value within the bounds.
+     * @throws IllegalArgumentException if {@code bound} is not positive.
+     */
+    public int nextInt(int bound) {
+        Random random = seeded;
+        return (random == null) ? ThreadLocalRandom.current().nextInt(bound) : random.nextInt(bound);
+    }
+
+    /**
+     * Gets a random UUID according to the current seed and {@link UuidMode}.
+     *
+     * @return the {@link String} representation of a random UUID.
+     */
+    public String nextUuid() {
+        Random random = seeded;
+        if (random != null) {
+            return uuidOf(random.nextLong(), random.nextLong());
+        }
+        if (uuidMode == UuidMode.FAST) {
+            ThreadLocalRandom current = ThreadLocalRandom.current();
+            return uuidOf(current.nextLong(), current.nextLong());
+        }
+        return UUID.randomUUID().toString();
+    }
+
+    private static String uuidOf(long mostSignificantBits, long leastSignificantBits) {
+        // set version 4 and IETF variant like UUID.randomUUID()
+        long msb = (mostSignificantBits & 0xffffffffffff0fffL) | 0x0000000000004000L;
+        long lsb = (leastSignificantBits & 0x3fffffffffffffffL) | 0x8000000000000000L;
+        return new UUID(msb, lsb).toString();
+    }
+
+    /**
+     * Gets the shared random source instance.
+     *
+     * @return the {@link RandomSource} instance.
+     */
+    public static RandomSource getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+}
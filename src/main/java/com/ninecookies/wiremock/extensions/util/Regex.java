@@ -0,0 +1,157 @@
+package com.ninecookies.wiremock.extensions.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.regex.Pattern;
+
+/**
+ * Provides methods to guard the evaluation of user supplied regular expressions.
+ *
+ * @author M.Scheepers
+ * @since 0.5.0
+ */
+public class Regex {
+
+    /**
+     * Thrown if a match exceeds its evaluation budget.
+     */
+    public static class MatchTimeoutException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private MatchTimeoutException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Indicates whether the specified {@code regex} contains a quantified group that itself contains an unbounded
+     * quantifier like {@code (a+)+} or {@code (\d*\.)*}, which may cause catastrophic backtracking.
+     *
+     * @param regex the regular expression to test.
+     * @return {@code true} if the regular expression contains nested quantifiers; otherwise {@code false}.
+     */
+    public static boolean hasNestedQuantifier(String regex) {
+        // for each open group whether it contains an unbounded quantifier
+        Deque<Boolean> groups = new ArrayDeque<>();
+        boolean quantified = false;
+        boolean inClass = false;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+                continue;
+            }
+            if (inClass) {
+                inClass = c != ']';
+                continue;
+            }
+            switch (c) {
+                case '[':
+                    inClass = true;
+                    // a closing bracket directly after the opening one is a literal
+                    if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+                        i++;
+                    }
+                    break;
+                case '(':
+                    groups.push(quantified);
+                    quantified = false;
+                    break;
+                case ')':
+                    boolean inner = quantified;
+                    quantified = groups.isEmpty() ? inner : groups.pop() || inner;
+                    if (inner && isUnboundedQuantifier(regex, i + 1)) {
+                        return true;
+                    }
+                    break;
+                default:
+                    if (isUnboundedQuantifier(regex, i)) {
+                        quantified = true;
+                    }
+                    break;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isUnboundedQuantifier(String regex, int index) {
+        if (index >= regex.length()) {
+            return false;
+        }
+        char c = regex.charAt(index);
+        if (c == '*' || c == '+') {
+            return true;
+        }
+        if (c == '{') {
+            int end = regex.indexOf('}', index);
+            // {n} is bounded to exactly n repetitions, {n,} and {n,m} are treated as unbounded
+            return end > index && regex.substring(index, end).indexOf(',') >= 0;
+        }
+        return false;
+    }
+
+    /**
+     * Matches the specified {@code input} against the specified {@code pattern} within the specified time budget.
+     *
+     * @param pattern the compiled {@link Pattern}.
+     * @param input the {@link CharSequence} to match.
+     * @param timeoutNanos the evaluation budget in nanoseconds ({@code 0} or less means unlimited).
+     * @return {@code true} if the entire input matches the pattern; otherwise {@code false}.
+     * @throws MatchTimeoutException if the evaluation exceeded the budget.
+     */
+    public static boolean matches(Pattern pattern, CharSequence input, long timeoutNanos) {
+        if (timeoutNanos <= 0) {
+            return pattern.matcher(input).matches();
+        }
+        return pattern.matcher(new TimeoutCharSequence(input, System.nanoTime() + timeoutNanos)).matches();
+    }
+
+    /**
+     * Protected constructor that avoids that new instances of this utility class are accidentally created but still
+     * allows this utility class to be inherited and enhanced.
+     */
+    protected Regex() {
+    }
+
+    /**
+     * Implements a {@link CharSequence} that aborts the regex evaluation by throwing a {@link MatchTimeoutException}
+     * once its deadline passed, since the matcher accesses the input with every backtracking step.
+     */
+    // visible for testing
+    static final class TimeoutCharSequence implements CharSequence {
+        // checking the time with every access would dominate regular matches
+        static final int CHECK_INTERVAL = 1_024;
+
+        private final CharSequence delegate;
+        private final long deadline;
+        private int accesses;
+
+        TimeoutCharSequence(CharSequence delegate, long deadline) {
+            this.delegate = delegate;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (++accesses % CHECK_INTERVAL == 0 && System.nanoTime() - deadline > 0) {
+                throw new MatchTimeoutException("regex evaluation exceeded its budget on '" + delegate + "'");
+            }
+            return delegate.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return delegate.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new TimeoutCharSequence(delegate.subSequence(start, end), deadline);
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.ninecookies.wiremock.extensions.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * Implements a {@link Clock} that runs with the pace of an underlying clock but can be advanced to simulate the
+ * passing of time.
+ * <p>
+ * The shared instance is used by the callback scheduler, the time related keywords and the request time matcher so
+ * that advancing it fast-forwards all time dependent behavior consistently.
+ *
+ * @author M.Scheepers
+ * @since 0.5.0
+ */
+public class SimulatedClock extends Clock {
+
+    private static final SimulatedClock INSTANCE = new SimulatedClock(Clock.systemDefaultZone());
+
+    private volatile Clock base;
+    private volatile long offset;
+
+    /**
+     * Initialize a new instance of the {@link SimulatedClock} with the specified arguments.
+     *
+     * @param base the underlying {@link Clock} providing the pace of this clock.
+     */
+    public SimulatedClock(Clock base) {
+        this.base = base;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return base.getZone();
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        SimulatedClock result = new SimulatedClock(base.withZone(zone));
+        result.offset = offset;
+        return result;
+    }
+
+    @Override
+    public long millis() {
+        return base.millis() + offset;
+    }
+
+    @Override
+    public Instant instant() {
+        return base.instant().plusMillis(offset);
+    }
+
+    /**
+     * Gets the offset in milliseconds this clock is ahead of the underlying clock.
+     *
+     * @return the offset in milliseconds.
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Advances this clock by the specified {@code duration}.
+     *
+     * @param duration the {@link Duration} to advance this clock by.
+     * @throws IllegalArgumentException if the duration is negative.
+     */
+    public synchronized void advance(Duration duration) {
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("unable to advance clock by negative duration '" + duration + "'");
+        }
+        offset += duration.toMillis();
+    }
+
+    /**
+     * Resets this clock to the time of the underlying clock.
+     */
+    public synchronized void reset() {
+        offset = 0;
+    }
+
+    /**
+     * Replaces the underlying clock of this clock, e.g. to use a fixed clock in tests.
+     *
+     * @param base the underlying {@link Clock}.
+     */
+    public void setBase(Clock base) {
+        this.base = base;
+    }
+
+    /**
+     * Gets the shared simulated clock instance.
+     *
+     * @return the {@link SimulatedClock} instance.
+     */
+    public static SimulatedClock getInstance() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,102 @@
+package com.ninecookies.wiremock.extensions;
+
+import static com.ninecookies.wiremock.extensions.util.Maps.entry;
+import static com.ninecookies.wiremock.extensions.util.Maps.mapOf;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import com.ninecookies.wiremock.extensions.AdmissionControl.Decision;
+import com.ninecookies.wiremock.extensions.AdmissionControl.Policy;
+
+public class AdmissionControlTest {
+
+    private static final long DELAY = 60_000;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+    private static class NoopCallbackHandler extends AbstractCallbackHandler<CallbackDefinition> {
+        private NoopCallbackHandler(ScheduledExecutorService executor, String type, String target) {
+            super(executor, new File("does-not-exist.json"), CallbackDefinition.class);
+            withTarget(type, target);
+        }
+
+        @Override
+        protected void handle(CallbackDefinition callback) {
+        }
+    }
+
+    @AfterClass
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testUnlimited() {
+        PendingCallbacks pending = new PendingCallbacks();
+        AdmissionControl admission = new AdmissionControl(0, Collections.emptyMap(), Policy.REJECT, pending);
+        schedule(pending, "http", "target");
+        assertEquals(admission.admit("http"), Decision.SCHEDULE);
+    }
+
+    @Test
+    public void testRejectPerType() {
+        PendingCallbacks pending = new PendingCallbacks();
+        AdmissionControl admission = new AdmissionControl(0, mapOf(entry("http", 1)), Policy.REJECT, pending);
+        assertEquals(admission.admit("http"), Decision.SCHEDULE);
+        schedule(pending, "http", "target");
+        assertEquals(admission.admit("http"), Decision.REJECT);
+        assertEquals(admission.admit("sqs"), Decision.SCHEDULE);
+    }
+
+    @Test
+    public void testInlineGlobal() {
+        PendingCallbacks pending = new PendingCallbacks();
+        AdmissionControl admission = new AdmissionControl(1, Collections.emptyMap(), Policy.INLINE, pending);
+        schedule(pending, "sqs", "queue");
+        assertEquals(admission.admit("http"), Decision.INLINE);
+    }
+
+    @Test
+    public void testDropOldest() {
+        PendingCallbacks pending = new PendingCallbacks();
+        AdmissionControl admission = new AdmissionControl(0, mapOf(entry("http", 2)), Policy.DROP_OLDEST, pending);
+        String oldest = schedule(pending, "http", "first");
+        schedule(pending, "sqs", "queue");
+        schedule(pending, "http", "second");
+
+        assertEquals(admission.admit("http"), Decision.SCHEDULE);
+        assertNull(pending.get(oldest));
+        assertEquals(pending.size("http"), 1);
+        assertEquals(pending.size("sqs"), 1);
+        assertEquals(pending.find(p -> true).size(), 2);
+    }
+
+    @Test
+    public void testDropOldestRejectsIfNothingDropped() {
+        PendingCallbacks pending = new PendingCallbacks() {
+            @Override
+            public PendingCallback cancelOldest(String type) {
+                // all pending callbacks became due concurrently
+                return null;
+            }
+        };
+        AdmissionControl admission = new AdmissionControl(1, Collections.emptyMap(), Policy.DROP_OLDEST, pending);
+        schedule(pending, "http", "target");
+        assertEquals(admission.admit("http"), Decision.REJECT);
+        assertEquals(pending.size(), 1);
+    }
+
+    private String schedule(PendingCallbacks pending, String type, String target) {
+        NoopCallbackHandler handler = new NoopCallbackHandler(executor, type, target);
+        pending.schedule(handler, executor, DELAY, 1);
+        return handler.getId();
+    }
+}
@@ -0,0 +1,99 @@
+package com.ninecookies.wiremock.extensions;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.testng.annotations.Test;
+
+public class BulkheadTest {
+
+    @Test
+    public void testLimitsConcurrency() {
+        Bulkhead bulkhead = new Bulkhead("target", 2, 1);
+        assertTrue(bulkhead.tryAcquire());
+        assertTrue(bulkhead.tryAcquire());
+        assertFalse(bulkhead.tryAcquire());
+        assertEquals(bulkhead.getInFlight(), 2);
+    }
+
+    @Test
+    public void testQueuedCallbackDispatchedOnRelease() {
+        List<Runnable> dispatched = new ArrayList<>();
+        Runnable callback = () -> {
+        };
+        Bulkhead bulkhead = new Bulkhead("target", 1, 1);
+        assertTrue(bulkhead.tryAcquire());
+        assertTrue(bulkhead.offer(callback, dispatched::add));
+        assertEquals(bulkhead.getQueued(), 1);
+        assertTrue(dispatched.isEmpty());
+
+        bulkhead.release();
+        assertEquals(bulkhead.getQueued(), 0);
+        assertEquals(bulkhead.getInFlight(), 0);
+        assertEquals(dispatched.size(), 1);
+        assertSame(dispatched.get(0), callback);
+    }
+
+    @Test
+    public void testBoundedQueue() {
+        Bulkhead bulkhead = new Bulkhead("target", 1, 1);
+        assertTrue(bulkhead.tryAcquire());
+        assertTrue(bulkhead.offer(() -> {
+        }, r -> {
+        }));
+        assertFalse(bulkhead.offer(() -> {
+        }, r -> {
+        }));
+        assertEquals(bulkhead.getQueued(), 1);
+    }
+
+    @Test
+    public void testRejectedCallbackRemainsParked() {
+        Executor shutDown = r -> {
+            throw new RejectedExecutionException("shut down");
+        };
+        Runnable callback = () -> {
+        };
+        Bulkhead bulkhead = new Bulkhead("target", 1, 1);
+        assertTrue(bulkhead.tryAcquire());
+        assertTrue(bulkhead.offer(callback, shutDown));
+
+        // releasing the permit must neither throw nor lose the callback
+        bulkhead.release();
+        assertEquals(bulkhead.getInFlight(), 0);
+        assertEquals(bulkhead.getQueued(), 1);
+    }
+
+    @Test
+    public void testDrain() {
+        Executor executor = r -> {
+        };
+        Runnable callback = () -> {
+        };
+        Bulkhead bulkhead = Bulkhead.of("drain-target", 1);
+        assertTrue(bulkhead.tryAcquire());
+        try {
+            assertTrue(bulkhead.offer(callback, executor));
+            assertTrue(Bulkhead.drain(r -> {
+            }).isEmpty());
+            assertEquals(Bulkhead.drain(executor), Collections.singletonList(callback));
+            assertEquals(bulkhead.getQueued(), 0);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    @Test
+    public void testDisabled() {
+        assertNull(Bulkhead.of("disabled", 0));
+    }
+}
@@ -11,6 +11,8 @@ import javax.jms.JMSException;
 
 import org.testng.annotations.Test;
 
+import com.ninecookies.wiremock.extensions.api.RetryPolicy.Jitter;
+import com.ninecookies.wiremock.extensions.api.RetryPolicy.Strategy;
 import com.ninecookies.wiremock.extensions.util.SystemUtil;
 
 public class CallbackConfigurationTest {
@@ -22,6 +24,12 @@ public class CallbackConfigurationTest {
         SystemUtil.setenv("SCHEDULED_THREAD_POOL_SIZE", "100");
         SystemUtil.setenv("RETRY_BACKOFF", "2500");
         SystemUtil.setenv("MAX_RETRIES", "3");
+        SystemUtil.setenv("RETRY_STRATEGY", "exponential");
+        SystemUtil.setenv("RETRY_JITTER", "FULL");
+        SystemUtil.setenv("RETRY_MAX_BACKOFF", "10000");
+        SystemUtil.setenv("HTTP_SOCKET_TIMEOUT", "2500");
+        SystemUtil.setenv("HTTP_MAX_CONCURRENCY_PER_HOST", "10");
+        SystemUtil.setenv("BULKHEAD_QUEUE_SIZE", "500");
         SystemUtil.setenv("AWS_REGION", "");
 
         Constructor<CallbackConfiguration> ctor = CallbackConfiguration.class.getDeclaredConstructor();
@@ -33,10 +41,25 @@ public class CallbackConfigurationTest {
         assertEquals(config.getCorePoolSize(), 100);
         assertEquals(config.getMaxRetries(), 3);
         assertEquals(config.getRetryBackoff(), 2_500);
+        assertEquals(config.getRetryPolicy().strategy, Strategy.EXPONENTIAL);
+        assertEquals(config.getRetryPolicy().jitter, Jitter.FULL);
+        assertEquals(config.getRetryPolicy().maxRetries, Integer.valueOf(3));
+        assertEquals(config.getRetryPolicy().backoff, Integer.valueOf(2_500));
+        assertEquals(config.getRetryPolicy().maxBackoff, Integer.valueOf(10_000));
+        assertEquals(config.getTimeouts().getConnectTimeout(), Integer.valueOf(3_000));
+        assertEquals(config.getTimeouts().getSocketTimeout(), Integer.valueOf(2_500));
+        assertEquals(config.getTimeouts().getRequestTimeout(), Integer.valueOf(5_000));
+        assertEquals(config.getTimeouts().getDeadline(), Long.valueOf(0));
+        assertEquals(config.getHttpMaxConcurrency(), 10);
+        assertEquals(config.getSqsMaxConcurrency(), 0);
+        assertEquals(config.getSnsMaxConcurrency(), 0);
+        assertEquals(config.getBulkheadQueueSize(), 500);
         assertFalse(config.isMessagingEnabled());
         assertNull(config.createConnectionFactory());
         assertNull(config.createConnection());
         assertNull(config.createSnsClient());
         assertNull(config.createSqsClient());
+        assertNull(config.getSnsClient());
+        assertNull(config.getSqsClient());
     }
 }
@@ -0,0 +1,65 @@
+package com.ninecookies.wiremock.extensions;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+public class CallbackResultJournalTest {
+
+    @Test
+    public void testOverwritesOldestWhenCapacityExceeded() {
+        CallbackResultJournal journal = new CallbackResultJournal(3);
+        for (int i = 1; i <= 5; i++) {
+            journal.record(result("target-" + i, i));
+        }
+        assertEquals(journal.size(), 3);
+        List<CallbackResult> results = journal.find(r -> true, 10);
+        assertEquals(results.size(), 3);
+        assertEquals(results.get(0).target, "target-3");
+        assertEquals(results.get(2).target, "target-5");
+    }
+
+    @Test
+    public void testFindReturnsLatestMatchesUpToLimit() {
+        CallbackResultJournal journal = new CallbackResultJournal(10);
+        for (int i = 1; i <= 6; i++) {
+            journal.record(result((i % 2 == 0) ? "even" : "odd", i));
+        }
+        assertEquals(journal.count(r -> "even".equals(r.target)), 3);
+        List<CallbackResult> results = journal.find(r -> "even".equals(r.target), 2);
+        assertEquals(results.size(), 2);
+        assertEquals(results.get(0).timestamp, 4);
+        assertEquals(results.get(1).timestamp, 6);
+        assertEquals(journal.count(r -> r.timestamp >= 2 && r.timestamp < 5), 3);
+    }
+
+    @Test
+    public void testClear() {
+        CallbackResultJournal journal = new CallbackResultJournal(10);
+        journal.record(result("target", 1));
+        journal.clear();
+        assertEquals(journal.size(), 0);
+        journal.record(result("target", 2));
+        assertEquals(journal.size(), 1);
+        assertEquals(journal.find(r -> true, 10).get(0).timestamp, 2);
+    }
+
+    @Test
+    public void testDisabledJournalIgnoresResults() {
+        CallbackResultJournal journal = new CallbackResultJournal(0);
+        journal.record(result("target", 1));
+        assertEquals(journal.size(), 0);
+        assertEquals(journal.count(r -> true), 0);
+    }
+
+    private static CallbackResult result(String target, long timestamp) {
+        CallbackResult result = new CallbackResult();
+        result.target = target;
+        result.timestamp = timestamp;
+        result.success = true;
+        result.attempts = 1;
+        return result;
+    }
+}
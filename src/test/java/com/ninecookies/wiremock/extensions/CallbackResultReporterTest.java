@@ -0,0 +1,40 @@
+package com.ninecookies.wiremock.extensions;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+import com.ninecookies.wiremock.extensions.util.Metrics;
+
+public class CallbackResultReporterTest {
+
+    private static final String METRICS_PREFIX = "callback.result-reports.";
+
+    @Test
+    public void testDropsReportsIfQueueExhausted() {
+        long dropped = Metrics.count(METRICS_PREFIX + "dropped");
+        CallbackResultReporter reporter = new CallbackResultReporter(1);
+        assertTrue(reporter.report(1, "{}"));
+        // every dropped report is counted while the warning is rate limited
+        for (int i = 0; i < 3; i++) {
+            assertFalse(reporter.report(1, "{}"));
+        }
+        assertEquals(Metrics.count(METRICS_PREFIX + "dropped"), dropped + 3);
+        reporter.shutdown(0);
+    }
+
+    @Test
+    public void testFailedReportsDontStopReporter() {
+        long failed = Metrics.count(METRICS_PREFIX + "failed");
+        CallbackResultReporter reporter = new CallbackResultReporter(10);
+        // invalid entity (IllegalArgumentException) followed by a refused connection (IOException)
+        assertTrue(reporter.report(1, null));
+        assertTrue(reporter.report(1, "{}"));
+        reporter.start().shutdown(10_000);
+        assertEquals(Metrics.count(METRICS_PREFIX + "failed"), failed + 2);
+        // reports are rejected once shut down
+        assertFalse(reporter.report(1, "{}"));
+    }
+}
@@ -0,0 +1,77 @@
+package com.ninecookies.wiremock.extensions;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.testng.annotations.Test;
+
+import com.ninecookies.wiremock.extensions.CallbackStore.StoredCallback;
+import com.ninecookies.wiremock.extensions.util.SimulatedClock;
+
+public class CallbackRuntimeTest {
+
+    private static final String CALLBACK_JSON = "{\"type\":\"http\",\"target\":\"http://localhost:1/shutdown\"}";
+
+    @Test
+    public void testSharedRuntime() {
+        CallbackRuntime first = CallbackRuntime.acquire();
+        CallbackRuntime second = CallbackRuntime.acquire();
+        try {
+            assertSame(second, first);
+            assertSame(second.getExecutor(), first.getExecutor());
+            assertSame(second.getHttpClient(), first.getHttpClient());
+            // still referenced by the second acquisition
+            assertFalse(first.release());
+            assertFalse(first.getExecutor().isShutdown());
+        } finally {
+            second.release();
+        }
+    }
+
+    @Test
+    public void testShutdownStoresPendingAndParkedCallbacks() throws IOException {
+        Path directory = Files.createTempDirectory("callback-store-");
+        CallbackStore store = new CallbackStore(directory.toString());
+        CallbackRuntime runtime = new CallbackRuntime(store);
+        HttpCallbackHandlerProvider provider = new HttpCallbackHandlerProvider(runtime);
+
+        AbstractCallbackHandler<?> pending = provider.get(CALLBACK_JSON);
+        pending.schedule(60_000);
+        Bulkhead bulkhead = Bulkhead.of("shutdown-target", 1);
+        assertTrue(bulkhead.tryAcquire());
+        AbstractCallbackHandler<?> parked = provider.get(CALLBACK_JSON);
+        assertTrue(bulkhead.offer(parked, runtime.getExecutor()));
+        long now = SimulatedClock.getInstance().millis();
+
+        runtime.shutdown();
+        assertTrue(runtime.getExecutor().isTerminated());
+        assertNull(PendingCallbacks.getInstance().get(pending.getId()));
+        assertEquals(bulkhead.getQueued(), 0);
+        // an in-flight callback completing after shutdown must not fail
+        bulkhead.release();
+
+        Map<String, StoredCallback> recovered = store.recover().stream()
+                .collect(Collectors.toMap(c -> c.id, Function.identity()));
+        assertEquals(recovered.size(), 2);
+        StoredCallback storedPending = recovered.get(pending.getId());
+        assertEquals(storedPending.type, "http");
+        assertEquals(storedPending.attempt, 1);
+        assertTrue(storedPending.due >= now + 59_000);
+        StoredCallback storedParked = recovered.get(parked.getId());
+        assertEquals(storedParked.type, "http");
+        assertEquals(storedParked.attempt, 1);
+        assertTrue(storedParked.due <= SimulatedClock.getInstance().millis());
+        assertEquals(storedParked.callback.get("target").asText(), "http://localhost:1/shutdown");
+        Files.delete(directory);
+    }
+}
@@ -3,6 +3,7 @@ package com.ninecookies.wiremock.extensions;
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.findAll;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.matchingJsonPath;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
@@ -15,6 +16,8 @@ import static com.github.tomakehurst.wiremock.client.WireMock.verify;
 import static com.jayway.restassured.RestAssured.given;
 import static com.ninecookies.wiremock.extensions.util.Maps.entry;
 import static com.ninecookies.wiremock.extensions.util.Maps.mapOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
 
@@ -24,6 +27,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.BooleanSupplier;
 
 import org.apache.http.HttpHeaders;
 import org.testng.annotations.BeforeMethod;
@@ -36,9 +40,13 @@ import com.amazonaws.services.sqs.model.ReceiveMessageResult;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.github.tomakehurst.wiremock.client.BasicCredentials;
 import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.matching.RequestPatternBuilder;
 import com.ninecookies.wiremock.extensions.api.Authentication;
 import com.ninecookies.wiremock.extensions.api.Callback;
 import com.ninecookies.wiremock.extensions.api.Callbacks;
+import com.ninecookies.wiremock.extensions.api.RetryPolicy;
+import com.ninecookies.wiremock.extensions.api.RetryPolicy.Strategy;
+import com.ninecookies.wiremock.extensions.util.Placeholders;
 
 public class CallbackSimulatorTest extends AbstractExtensionTest {
 
@@ -59,6 +67,8 @@ public class CallbackSimulatorTest extends AbstractExtensionTest {
 
     private static final int DELAY = 100;
     private static final int SLEEP = 500;
+    private static final int AWAIT_TIMEOUT = 5_000;
+    private static final int AWAIT_INTERVAL = 50;
     private static final int SERVER_PORT = 9090;
 
     private static final String CALLBACK_POST_DATA_FORMAT = "{\"code\":\"%s\"}";
@@ -708,12 +718,258 @@ public class CallbackSimulatorTest extends AbstractExtensionTest {
 
         sleep();
         verify(1, postRequestedFor(urlPathEqualTo(callbackPath)));
-        verify(1, postRequestedFor(urlPathEqualTo("/callback/result"))
+        // results are reported asynchronously
+        awaitRequests(1, postRequestedFor(urlPathEqualTo("/callback/result"))
                 .withRequestBody(matchingJsonPath("$.[?(@.target == '" + callbackUrl + "')]"))
                 .withRequestBody(matchingJsonPath("$.[?(@.response.status == " + callbackResponseStatus + ")]"))
                 .withRequestBody(matchingJsonPath("$.[?(@.response.body == '" + callbackResponseData + "')]")));
     }
 
+    @Test
+    public void testCallbackMetrics() {
+        String postUrl = "/callback/with/metrics";
+        String callbackPath = "/metrics/callback";
+        String callbackUrl = "http://localhost:" + SERVER_PORT + callbackPath;
+
+        stubFor(post(urlEqualTo(postUrl))
+                .withPostServeAction("callback-simulator",
+                        Callbacks.of(DELAY, callbackUrl, CallbackData.of("arbitrary-data")))
+                .willReturn(aResponse().withStatus(204)));
+        stubFor(post(urlPathEqualTo(callbackPath)).willReturn(aResponse().withStatus(204)));
+
+        given().body("{}").contentType("application/json")
+                .when().post(postUrl)
+                .then().statusCode(204);
+
+        sleep();
+        verify(1, postRequestedFor(urlPathEqualTo(callbackPath)));
+        given().get("/__admin/callbacks/metrics")
+                .then().statusCode(200)
+                .body("'callback.circuit-breaker.localhost:" + SERVER_PORT + ".state'", is("CLOSED"));
+    }
+
+    @Test
+    public void testCallbackResultJournal() {
+        String postUrl = "/callback/with/result/journal";
+        String callbackPath = "/result/journal/callback";
+        String callbackUrl = "http://localhost:" + SERVER_PORT + callbackPath;
+        String traceId = UUID.randomUUID().toString();
+
+        stubFor(post(urlEqualTo(postUrl))
+                .withPostServeAction("callback-simulator",
+                        Callbacks.of(DELAY, callbackUrl, null, null, traceId, CallbackData.of("arbitrary-data")))
+                .willReturn(aResponse().withStatus(204)));
+        stubFor(post(urlPathEqualTo(callbackPath)).willReturn(aResponse().withStatus(202)));
+
+        given().body("{}").contentType("application/json")
+                .when().post(postUrl)
+                .then().statusCode(204);
+
+        sleep();
+        given().queryParam("traceId", traceId).get("/__admin/callbacks/results")
+                .then().statusCode(200)
+                .body("count", is(1))
+                .body("results[0].target", is(callbackUrl))
+                .body("results[0].type", is("http"))
+                .body("results[0].success", is(true))
+                .body("results[0].status", is(202))
+                .body("results[0].attempts", is(1));
+        given().queryParam("traceId", traceId).queryParam("to", "2000-01-01T00:00:00Z")
+                .get("/__admin/callbacks/results")
+                .then().statusCode(200)
+                .body("count", is(0));
+        given().queryParam("from", "yesterday").get("/__admin/callbacks/results")
+                .then().statusCode(400);
+    }
+
+    @Test
+    public void testFirePendingCallback() {
+        String postUrl = "/callback/pending/fire";
+        String callbackPath = "/pending/fire/callback";
+        String callbackUrl = "http://localhost:" + SERVER_PORT + callbackPath;
+
+        stubFor(post(urlEqualTo(postUrl))
+                .withPostServeAction("callback-simulator",
+                        Callbacks.of(60_000, callbackUrl, CallbackData.of("arbitrary-data")))
+                .willReturn(aResponse().withStatus(204)));
+        stubFor(post(urlPathEqualTo(callbackPath)).willReturn(aResponse().withStatus(204)));
+
+        given().body("{}").contentType("application/json")
+                .when().post(postUrl)
+                .then().statusCode(204);
+
+        given().get("/__admin/callbacks/pending/count")
+                .then().statusCode(200)
+                .body("'" + callbackUrl + "'", is(1));
+        given().queryParam("target", callbackUrl).get("/__admin/callbacks/pending")
+                .then().statusCode(200)
+                .body("[0].type", is("http"))
+                .body("[0].attempt", is(1));
+        given().queryParam("target", callbackUrl).post("/__admin/callbacks/pending/fire")
+                .then().statusCode(200)
+                .body("size()", is(1));
+
+        sleep();
+        verify(1, postRequestedFor(urlPathEqualTo(callbackPath)));
+        given().queryParam("target", callbackUrl).get("/__admin/callbacks/pending")
+                .then().statusCode(200)
+                .body("size()", is(0));
+    }
+
+    @Test
+    public void testCancelPendingCallback() {
+        String postUrl = "/callback/pending/cancel";
+        String callbackPath = "/pending/cancel/callback";
+        String callbackUrl = "http://localhost:" + SERVER_PORT + callbackPath;
+
+        stubFor(post(urlEqualTo(postUrl))
+                .withPostServeAction("callback-simulator",
+                        Callbacks.of(500, callbackUrl, CallbackData.of("arbitrary-data")))
+                .willReturn(aResponse().withStatus(204)));
+        stubFor(post(urlPathEqualTo(callbackPath)).willReturn(aResponse().withStatus(204)));
+
+        given().body("{}").contentType("application/json")
+                .when().post(postUrl)
+                .then().statusCode(204);
+
+        String id = given().queryParam("target", callbackUrl).get("/__admin/callbacks/pending")
+                .then().statusCode(200)
+                .extract().path("[0].id");
+        given().delete("/__admin/callbacks/pending/" + id)
+                .then().statusCode(200)
+                .body("target", is(callbackUrl));
+        given().delete("/__admin/callbacks/pending/" + id)
+                .then().statusCode(404);
+
+        sleep(1_000);
+        verify(0, postRequestedFor(urlPathEqualTo(callbackPath)));
+    }
+
+    @Test
+    public void testAdvanceSimulatedClock() {
+        String postUrl = "/callback/simulated/clock";
+        String callbackPath = "/simulated/clock/callback";
+        String callbackUrl = "http://localhost:" + SERVER_PORT + callbackPath;
+
+        stubFor(post(urlEqualTo(postUrl))
+                .withPostServeAction("callback-simulator", Callbacks.of(
+                        Callback.of(3_600_000, callbackUrl, CallbackData.of("due-in-one-hour")),
+                        Callback.of(7_200_000, callbackUrl, CallbackData.of("due-in-two-hours"))))
+                .willReturn(aResponse().withStatus(204)));
+        stubFor(post(urlPathEqualTo(callbackPath)).willReturn(aResponse().withStatus(204)));
+
+        given().body("{}").contentType("application/json")
+                .when().post(postUrl)
+                .then().statusCode(204);
+
+        try {
+            given().queryParam("duration", "PT1H").post("/__admin/callbacks/clock/advance")
+                    .then().statusCode(200)
+                    .body("offset", is(3_600_000))
+                    .body("fired", is(1));
+            sleep();
+            verify(1, postRequestedFor(urlPathEqualTo(callbackPath)));
+            given().queryParam("target", callbackUrl).get("/__admin/callbacks/pending")
+                    .then().statusCode(200)
+                    .body("size()", is(1));
+            given().queryParam("duration", "-1").post("/__admin/callbacks/clock/advance")
+                    .then().statusCode(400);
+        } finally {
+            given().delete("/__admin/callbacks/clock")
+                    .then().statusCode(200)
+                    .body("offset", is(0));
+            given().queryParam("target", callbackUrl).delete("/__admin/callbacks/pending")
+                    .then().statusCode(200);
+        }
+    }
+
+    @Test
+    public void testUpdateSettings() {
+        String original = given().get("/__admin/callbacks/settings")
+                .then().statusCode(200)
+                .extract().asString();
+        try {
+            given().body("{\"httpMaxConnectionsPerHost\":20,\"retryPolicy\":{\"backoff\":1000}}")
+                    .contentType("application/json")
+                    .put("/__admin/callbacks/settings")
+                    .then().statusCode(200)
+                    .body("httpMaxConnectionsPerHost", is(20))
+                    .body("retryPolicy.backoff", is(1000))
+                    .body("retryPolicy.strategy", notNullValue());
+            given().body("{\"corePoolSize\":0}").contentType("application/json")
+                    .put("/__admin/callbacks/settings")
+                    .then().statusCode(400);
+            given().body("{\"corePoolSize\":10}").contentType("application/json")
+                    .put("/__admin/callbacks/settings")
+                    .then().statusCode(400);
+        } finally {
+            given().body(original).contentType("application/json")
+                    .put("/__admin/callbacks/settings")
+                    .then().statusCode(200);
+        }
+    }
+
+    @Test
+    public void testEnvironmentOverrides() {
+        try {
+            given().body("{\"SOME_OVERRIDDEN_KEY\":\"overridden\"}")
+                    .contentType("application/json")
+                    .put("/__admin/callbacks/environment/overrides")
+                    .then().statusCode(200)
+                    .body("overrides.SOME_OVERRIDDEN_KEY", is("overridden"));
+            assertEquals(Placeholders.transformValue("$(!ENV[SOME_OVERRIDDEN_KEY])"), "overridden");
+            given().body("[1]").contentType("application/json")
+                    .put("/__admin/callbacks/environment/overrides")
+                    .then().statusCode(400);
+        } finally {
+            given().delete("/__admin/callbacks/environment/overrides")
+                    .then().statusCode(200);
+        }
+        assertEquals(Placeholders.transformValue("$(!ENV[SOME_OVERRIDDEN_KEY])"), "null");
+    }
+
+    @Test
+    public void testDeadLetterReplay() {
+        String postUrl = "/callback/with/dead/letter";
+        String callbackPath = "/dead/letter/callback";
+        String callbackUrl = "http://localhost:" + SERVER_PORT + callbackPath;
+        Callback callback = Callback.of(DELAY, callbackUrl, CallbackData.of("arbitrary-data"));
+        callback.retryPolicy = RetryPolicy.of(Strategy.FIXED, 1, DELAY);
+
+        stubFor(post(urlEqualTo(postUrl))
+                .withPostServeAction("callback-simulator", Callbacks.of(callback))
+                .willReturn(aResponse().withStatus(204)));
+        // 4xx responses don't open the circuit of the shared callback host
+        stubFor(post(urlPathEqualTo(callbackPath)).willReturn(aResponse().withStatus(400)));
+
+        given().body("{}").contentType("application/json")
+                .when().post(postUrl)
+                .then().statusCode(204);
+
+        // the first attempt and the single retry fail
+        awaitRequests(2, postRequestedFor(urlPathEqualTo(callbackPath)));
+        await(() -> deadLetterCount(callbackUrl) == 1);
+        given().queryParam("target", callbackUrl).get("/__admin/callbacks/dead-letters")
+                .then().statusCode(200)
+                .body("size()", is(1))
+                .body("[0].type", is("http"))
+                .body("[0].attempts", is(2));
+
+        stubFor(post(urlPathEqualTo(callbackPath)).willReturn(aResponse().withStatus(204)));
+        given().queryParam("target", callbackUrl).post("/__admin/callbacks/dead-letters/replay")
+                .then().statusCode(200)
+                .body("size()", is(1));
+
+        awaitRequests(3, postRequestedFor(urlPathEqualTo(callbackPath)));
+        assertEquals(deadLetterCount(callbackUrl), 0);
+    }
+
+    private int deadLetterCount(String target) {
+        return given().queryParam("target", target).get("/__admin/callbacks/dead-letters")
+                .then().statusCode(200)
+                .extract().path("size()");
+    }
+
     @Test
     public void testSqsMessageCallback() {
         String messageId = UUID.randomUUID().toString();
@@ -739,6 +995,18 @@ public class CallbackSimulatorTest extends AbstractExtensionTest {
         assertEquals(message.get("defined_value").textValue(), "from-mapping-file");
     }
 
+    private void awaitRequests(int count, RequestPatternBuilder pattern) {
+        await(() -> findAll(pattern).size() >= count);
+        verify(count, pattern);
+    }
+
+    private void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + AWAIT_TIMEOUT;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            sleep(AWAIT_INTERVAL);
+        }
+    }
+
     private void sleep() {
         sleep(SLEEP);
     }
@@ -0,0 +1,46 @@
+package com.ninecookies.wiremock.extensions;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.ninecookies.wiremock.extensions.CallbackStore.StoredCallback;
+
+public class CallbackStoreTest {
+
+    @Test
+    public void testPersistAndRecover() throws IOException {
+        Path directory = Files.createTempDirectory("callback-store-");
+        CallbackStore store = new CallbackStore(directory.toString());
+        assertTrue(store.isEnabled());
+        assertTrue(store.persist("id-1", "http", 1_000L, 2, "{\"target\":\"http://localhost/callback\"}"));
+
+        List<StoredCallback> recovered = store.recover();
+        assertEquals(recovered.size(), 1);
+        StoredCallback stored = recovered.get(0);
+        assertEquals(stored.id, "id-1");
+        assertEquals(stored.type, "http");
+        assertEquals(stored.due, 1_000L);
+        assertEquals(stored.attempt, 2);
+        assertEquals(stored.callback.get("target").asText(), "http://localhost/callback");
+
+        // recovered callbacks are removed from the store
+        assertTrue(store.recover().isEmpty());
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testDisabledStore() {
+        CallbackStore store = new CallbackStore(null);
+        assertFalse(store.isEnabled());
+        assertFalse(store.persist("id-1", "http", 1_000L, 1, "{}"));
+        assertTrue(store.recover().isEmpty());
+    }
+}
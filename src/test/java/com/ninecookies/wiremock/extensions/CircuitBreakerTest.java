@@ -0,0 +1,121 @@
+package com.ninecookies.wiremock.extensions;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.testng.annotations.Test;
+
+import com.ninecookies.wiremock.extensions.CircuitBreaker.State;
+import com.ninecookies.wiremock.extensions.HttpCallbackHandler.HttpCallbackDefinition;
+import com.ninecookies.wiremock.extensions.util.SimulatedClock;
+
+public class CircuitBreakerTest {
+
+    private static final long OPEN_DURATION = 100;
+
+    @Test
+    public void testOpensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker("target", 2, OPEN_DURATION);
+        breaker.onFailure();
+        assertEquals(breaker.getState(), State.CLOSED);
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(breaker.getState(), State.OPEN);
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    public void testSuccessResetsFailures() {
+        CircuitBreaker breaker = new CircuitBreaker("target", 2, OPEN_DURATION);
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        assertEquals(breaker.getState(), State.CLOSED);
+    }
+
+    @Test
+    public void testHalfOpenProbe() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker("target", 1, OPEN_DURATION);
+        breaker.onFailure();
+        assertFalse(breaker.tryAcquire());
+        Thread.sleep(OPEN_DURATION + 10);
+        // only a single probe is permitted
+        assertTrue(breaker.tryAcquire());
+        assertEquals(breaker.getState(), State.HALF_OPEN);
+        assertFalse(breaker.tryAcquire());
+        // failed probe opens the circuit again
+        breaker.onFailure();
+        assertEquals(breaker.getState(), State.OPEN);
+        Thread.sleep(OPEN_DURATION + 10);
+        assertTrue(breaker.tryAcquire());
+        // successful probe closes the circuit
+        breaker.onSuccess();
+        assertEquals(breaker.getState(), State.CLOSED);
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    public void testOpenDurationFollowsSimulatedClock() {
+        CircuitBreaker breaker = new CircuitBreaker("target", 1, Duration.ofHours(1).toMillis());
+        breaker.onFailure();
+        assertFalse(breaker.tryAcquire());
+        try {
+            SimulatedClock.getInstance().advance(Duration.ofHours(1));
+            assertTrue(breaker.tryAcquire());
+            assertEquals(breaker.getState(), State.HALF_OPEN);
+        } finally {
+            SimulatedClock.getInstance().reset();
+        }
+    }
+
+    @Test
+    public void testStaleProbeIsReplaced() {
+        CircuitBreaker breaker = new CircuitBreaker("target", 1, Duration.ofHours(1).toMillis());
+        breaker.onFailure();
+        try {
+            SimulatedClock.getInstance().advance(Duration.ofHours(1));
+            assertTrue(breaker.tryAcquire());
+            assertFalse(breaker.tryAcquire());
+            // the probe never reports its result
+            SimulatedClock.getInstance().advance(Duration.ofHours(1));
+            assertTrue(breaker.tryAcquire());
+            assertEquals(breaker.getState(), State.HALF_OPEN);
+        } finally {
+            SimulatedClock.getInstance().reset();
+        }
+    }
+
+    @Test
+    public void testProbeFailingWithRuntimeExceptionOpensCircuit() throws IOException {
+        Path directory = Files.createTempDirectory("callback-store-");
+        CallbackRuntime runtime = new CallbackRuntime(new CallbackStore(directory.toString()));
+        // the closed connection pool lets the probe request fail with an IllegalStateException
+        runtime.shutdown();
+        CircuitBreaker breaker = CircuitBreaker.of("localhost:19", 1, 0);
+        breaker.onFailure();
+        assertEquals(breaker.getState(), State.OPEN);
+
+        HttpCallbackDefinition callback = new HttpCallbackDefinition();
+        callback.target = "http://localhost:19/probe";
+        callback.data = "{}";
+        assertThrows(IllegalStateException.class, () -> HttpCallbackHandler.of(runtime, null).handle(callback));
+        assertEquals(breaker.getState(), State.OPEN);
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testDisabled() {
+        CircuitBreaker breaker = new CircuitBreaker("target", 0, OPEN_DURATION);
+        breaker.onFailure();
+        breaker.onFailure();
+        assertEquals(breaker.getState(), State.CLOSED);
+        assertTrue(breaker.tryAcquire());
+    }
+}
@@ -0,0 +1,82 @@
+package com.ninecookies.wiremock.extensions;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.github.tomakehurst.wiremock.common.Json;
+
+public class DeadLetterStoreTest {
+
+    @Test
+    public void testEvictsOldestWhenCapacityExceeded() {
+        DeadLetterStore store = new DeadLetterStore(2, null);
+        store.add(deadLetter("1", "http", "http://localhost/1"));
+        store.add(deadLetter("2", "http", "http://localhost/2"));
+        store.add(deadLetter("3", "sqs", "queue"));
+
+        assertEquals(store.size(), 2);
+        assertNull(store.get("1"));
+        assertNotNull(store.get("2"));
+        assertNotNull(store.get("3"));
+    }
+
+    @Test
+    public void testDisabledStoreIgnoresDeadLetters() {
+        DeadLetterStore store = new DeadLetterStore(0, null);
+        store.add(deadLetter("1", "http", "http://localhost/1"));
+        assertEquals(store.size(), 0);
+    }
+
+    @Test
+    public void testFindAndRemove() {
+        DeadLetterStore store = new DeadLetterStore(10, null);
+        store.add(deadLetter("1", "http", "http://localhost/1"));
+        store.add(deadLetter("2", "sns", "topic"));
+        store.add(deadLetter("3", "sns", "topic"));
+
+        assertEquals(store.find(d -> "sns".equals(d.type)).size(), 2);
+        List<DeadLetter> removed = store.remove(d -> "topic".equals(d.target));
+        assertEquals(removed.size(), 2);
+        assertEquals(removed.get(0).id, "2");
+        assertEquals(store.size(), 1);
+        assertNotNull(store.get("1"));
+    }
+
+    @Test
+    public void testSurvivesRestartWithSegmentFile() throws IOException {
+        File segment = File.createTempFile("dead-letters-", ".jsonl");
+        segment.deleteOnExit();
+        DeadLetterStore store = new DeadLetterStore(2, segment.getPath());
+        store.add(deadLetter("1", "http", "http://localhost/1"));
+        store.add(deadLetter("2", "http", "http://localhost/2"));
+        store.add(deadLetter("3", "http", "http://localhost/3"));
+        store.remove(d -> "2".equals(d.id));
+
+        DeadLetterStore restarted = new DeadLetterStore(2, segment.getPath());
+        assertEquals(restarted.size(), 1);
+        DeadLetter deadLetter = restarted.get("3");
+        assertNotNull(deadLetter);
+        assertEquals(deadLetter.target, "http://localhost/3");
+        assertEquals(deadLetter.attempts, 3);
+        assertEquals(deadLetter.callback.get("target").asText(), "http://localhost/3");
+    }
+
+    private static DeadLetter deadLetter(String id, String type, String target) {
+        DeadLetter result = new DeadLetter();
+        result.id = id;
+        result.type = type;
+        result.target = target;
+        result.failedAt = System.currentTimeMillis();
+        result.attempts = 3;
+        result.error = "failed";
+        result.callback = Json.node("{\"target\":\"" + target + "\"}");
+        return result;
+    }
+}
@@ -7,12 +7,17 @@ import static com.github.tomakehurst.wiremock.client.WireMock.resetAllRequests;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static com.jayway.restassured.RestAssured.when;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+import java.util.regex.Pattern;
 
 import org.joda.time.DateTimeFieldType;
 import org.joda.time.Instant;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import com.github.tomakehurst.wiremock.common.InvalidInputException;
 import com.github.tomakehurst.wiremock.extension.Parameters;
 
 public class RequestTimeMatcherTest extends AbstractExtensionTest {
@@ -106,4 +111,44 @@ public class RequestTimeMatcherTest extends AbstractExtensionTest {
                 .willReturn(aResponse().withStatus(200)));
         when().get(URL).then().statusCode(400);
     }
+
+    @Test
+    public void testRequestTimeMatcherMatchesTimeWindow() {
+        Parameters parameters = Parameters.one("timesOfDay", "00:00-00:00");
+        parameters.put("minuteModulo", 1);
+        stubFor(any(urlEqualTo(URL))
+                .atPriority(3)
+                .andMatching("request-time-matcher", parameters)
+                .willReturn(aResponse().withStatus(200)));
+        when().get(URL).then().statusCode(200);
+    }
+
+    @Test
+    public void testRequestTimeMatcherNotMatchesTimeWindow() {
+        stubFor(any(urlEqualTo(URL))
+                .atPriority(3)
+                .andMatching("request-time-matcher", Parameters.one("from", "2999-01-01T00:00:00Z"))
+                .willReturn(aResponse().withStatus(200)));
+        when().get(URL).then().statusCode(400);
+    }
+
+    @Test(expectedExceptions = InvalidInputException.class)
+    public void testRequestTimeMatcherRejectsNestedQuantifiers() {
+        stubFor(any(urlEqualTo(URL))
+                .atPriority(3)
+                .andMatching("request-time-matcher", Parameters.one("pattern", "(\\d+)+T.*"))
+                .willReturn(aResponse().withStatus(200)));
+    }
+
+    @Test
+    public void testCompiledPatternsAreCached() {
+        String pattern = ".*T\\d{2}:1\\d{1}:\\d{2}\\..*";
+        Pattern compiled = RequestTimeMatcher.compile(pattern);
+        assertSame(RequestTimeMatcher.compile(pattern), compiled);
+        for (int i = 0; i < RequestTimeMatcher.MAX_CACHED_PATTERNS; i++) {
+            RequestTimeMatcher.compile(".*" + i);
+        }
+        // the cache started over once the bound was reached
+        assertNotSame(RequestTimeMatcher.compile(pattern), compiled);
+    }
 }
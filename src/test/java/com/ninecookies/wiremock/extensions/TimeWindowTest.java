@@ -0,0 +1,102 @@
+package com.ninecookies.wiremock.extensions;
+
+import static com.ninecookies.wiremock.extensions.util.Maps.entry;
+import static com.ninecookies.wiremock.extensions.util.Maps.mapOf;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.time.Instant;
+import java.util.Collections;
+
+import org.testng.annotations.Test;
+
+import com.ninecookies.wiremock.extensions.util.Lists;
+
+public class TimeWindowTest {
+
+    // a wednesday
+    private static final long MORNING = millis("2021-12-01T09:30:15Z");
+    private static final long NIGHT = millis("2021-12-01T23:10:00Z");
+
+    @Test
+    public void testTimesOfDay() {
+        TimeWindow window = TimeWindow.of(mapOf(entry("timesOfDay", "09:00-17:00")));
+        assertTrue(window.matches(MORNING));
+        assertFalse(window.matches(NIGHT));
+        assertFalse(window.matches(millis("2021-12-01T17:00:00Z")));
+    }
+
+    @Test
+    public void testTimesOfDaySpanningMidnight() {
+        TimeWindow window = TimeWindow.of(mapOf(entry("timesOfDay", Lists.listOf("22:00-02:00", "09:30-09:31"))));
+        assertTrue(window.matches(NIGHT));
+        assertTrue(window.matches(millis("2021-12-02T01:59:59Z")));
+        assertTrue(window.matches(MORNING));
+        assertFalse(window.matches(millis("2021-12-01T12:00:00Z")));
+    }
+
+    @Test
+    public void testDaysOfWeek() {
+        assertTrue(TimeWindow.of(mapOf(entry("daysOfWeek", Lists.listOf("MON", "wednesday")))).matches(MORNING));
+        assertFalse(TimeWindow.of(mapOf(entry("daysOfWeek", "THURSDAY"))).matches(MORNING));
+        assertTrue(TimeWindow.of(mapOf(entry("daysOfWeek", "THURSDAY"))).matches(millis("1970-01-01T00:00:00Z")));
+    }
+
+    @Test
+    public void testMinuteAndSecondModulo() {
+        assertTrue(TimeWindow.of(mapOf(entry("minuteModulo", 2))).matches(MORNING));
+        assertFalse(TimeWindow.of(mapOf(entry("minuteModulo", 2), entry("minuteRemainder", 1))).matches(MORNING));
+        assertTrue(TimeWindow.of(mapOf(entry("secondModulo", 5))).matches(MORNING));
+        assertFalse(TimeWindow.of(mapOf(entry("secondModulo", 10))).matches(MORNING));
+    }
+
+    @Test
+    public void testFromUntil() {
+        TimeWindow window = TimeWindow.of(mapOf(
+                entry("from", "2021-12-01T09:00:00Z"),
+                entry("until", "2021-12-01T10:00:00Z")));
+        assertTrue(window.matches(MORNING));
+        assertFalse(window.matches(NIGHT));
+        assertFalse(window.matches(millis("2021-12-01T10:00:00Z")));
+    }
+
+    @Test
+    public void testRangeEndingWhenItStartsCoversWholeDay() {
+        TimeWindow window = TimeWindow.of(mapOf(entry("timesOfDay", "00:00-00:00")));
+        assertTrue(window.matches(millis("2021-12-01T00:00:00Z")));
+        assertTrue(window.matches(millis("2021-12-01T23:59:59Z")));
+    }
+
+    @Test
+    public void testKeyOf() {
+        assertEquals(TimeWindow.keyOf(mapOf(entry("pattern", ".*"), entry("daysOfWeek", "MON"))),
+                TimeWindow.keyOf(mapOf(entry("pattern", "\\d+"), entry("daysOfWeek", "MON"))));
+        assertNotEquals(TimeWindow.keyOf(mapOf(entry("daysOfWeek", "MON"))),
+                TimeWindow.keyOf(mapOf(entry("daysOfWeek", "TUE"))));
+        assertNotEquals(TimeWindow.keyOf(mapOf(entry("minuteModulo", 2))),
+                TimeWindow.keyOf(mapOf(entry("secondModulo", 2))));
+    }
+
+    @Test
+    public void testIsDefinedBy() {
+        assertTrue(TimeWindow.isDefinedBy(mapOf(entry("daysOfWeek", "MON"))));
+        assertFalse(TimeWindow.isDefinedBy(mapOf(entry("pattern", ".*"))));
+        assertFalse(TimeWindow.isDefinedBy(Collections.emptyMap()));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidTimeOfDayRange() {
+        TimeWindow.of(mapOf(entry("timesOfDay", "09:00")));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidRemainder() {
+        TimeWindow.of(mapOf(entry("minuteModulo", 2), entry("minuteRemainder", 2)));
+    }
+
+    private static long millis(String instant) {
+        return Instant.parse(instant).toEpochMilli();
+    }
+}
@@ -0,0 +1,66 @@
+package com.ninecookies.wiremock.extensions.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.ninecookies.wiremock.extensions.api.RetryPolicy.Jitter;
+import com.ninecookies.wiremock.extensions.api.RetryPolicy.Strategy;
+
+public class RetryPolicyTest {
+
+    private static final RetryPolicy DEFAULTS = RetryPolicy.of(Strategy.LINEAR, Jitter.NONE, 3, 1_000, 0);
+
+    @Test
+    public void testWithDefaults() {
+        RetryPolicy policy = RetryPolicy.of(Strategy.EXPONENTIAL, 5, null).withDefaults(DEFAULTS);
+        assertEquals(policy.strategy, Strategy.EXPONENTIAL);
+        assertEquals(policy.jitter, Jitter.NONE);
+        assertEquals(policy.maxRetries, Integer.valueOf(5));
+        assertEquals(policy.backoff, Integer.valueOf(1_000));
+        assertEquals(policy.maxBackoff, Integer.valueOf(0));
+    }
+
+    @Test(dataProvider = "strategiesAndFixtures")
+    public void testNextBackoff(Strategy strategy, Integer maxBackoff, long[] expected) {
+        RetryPolicy policy = RetryPolicy.of(strategy, Jitter.NONE, 4, 100, maxBackoff);
+        long previous = 0;
+        for (int invocation = 1; invocation <= expected.length; invocation++) {
+            previous = policy.nextBackoff(invocation, previous);
+            assertEquals(previous, expected[invocation - 1]);
+        }
+    }
+
+    @DataProvider
+    private Object[][] strategiesAndFixtures() {
+        return new Object[][] {
+                { Strategy.FIXED, 0, new long[] { 100, 100, 100, 100 } },
+                { Strategy.LINEAR, 0, new long[] { 100, 200, 300, 400 } },
+                { Strategy.LINEAR, 250, new long[] { 100, 200, 250, 250 } },
+                { Strategy.EXPONENTIAL, 0, new long[] { 100, 200, 400, 800 } },
+                { Strategy.EXPONENTIAL, 500, new long[] { 100, 200, 400, 500 } },
+        };
+    }
+
+    @Test
+    public void testNextBackoffWithFullJitter() {
+        RetryPolicy policy = RetryPolicy.of(Strategy.EXPONENTIAL, Jitter.FULL, 10, 100, 1_000);
+        for (int invocation = 1; invocation <= 10; invocation++) {
+            long expectedMax = Math.min(1_000, 100L << (invocation - 1));
+            assertThat(policy.nextBackoff(invocation, 0)).isBetween(0L, expectedMax);
+        }
+    }
+
+    @Test
+    public void testNextBackoffWithDecorrelatedJitter() {
+        RetryPolicy policy = RetryPolicy.of(Strategy.EXPONENTIAL, Jitter.DECORRELATED, 10, 100, 1_000);
+        long previous = 0;
+        for (int invocation = 1; invocation <= 10; invocation++) {
+            long upper = Math.min(1_000, Math.max(previous, 100) * 3);
+            previous = policy.nextBackoff(invocation, previous);
+            assertThat(previous).isBetween(100L, upper);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.ninecookies.wiremock.extensions.api;
+
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+public class TimeoutsTest {
+
+    private static final Timeouts DEFAULTS = Timeouts.of(3_000, 2_000, 5_000, 0L);
+
+    @Test
+    public void testWithDefaults() {
+        Timeouts timeouts = Timeouts.of(null, 30_000, null, 60_000L).withDefaults(DEFAULTS);
+        assertEquals(timeouts.getConnectTimeout(), Integer.valueOf(3_000));
+        assertEquals(timeouts.getSocketTimeout(), Integer.valueOf(30_000));
+        assertEquals(timeouts.getRequestTimeout(), Integer.valueOf(5_000));
+        assertEquals(timeouts.getDeadline(), Long.valueOf(60_000));
+    }
+
+    @Test
+    public void testDeadlineOnly() {
+        Timeouts timeouts = Timeouts.ofDeadline(10_000).withDefaults(DEFAULTS);
+        assertEquals(timeouts.getConnectTimeout(), Integer.valueOf(3_000));
+        assertEquals(timeouts.getSocketTimeout(), Integer.valueOf(2_000));
+        assertEquals(timeouts.getRequestTimeout(), Integer.valueOf(5_000));
+        assertEquals(timeouts.getDeadline(), Long.valueOf(10_000));
+    }
+}
@@ -0,0 +1,50 @@
+package com.ninecookies.wiremock.extensions.util;
+
+import static com.ninecookies.wiremock.extensions.util.Maps.entry;
+import static com.ninecookies.wiremock.extensions.util.Maps.mapOf;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+public class EnvironmentTest {
+
+    @Test
+    public void testSnapshotSources() {
+        System.setProperty("env.ENVIRONMENT_TEST_KEY", "property-value");
+        try {
+            Environment environment = new Environment();
+            assertEquals(environment.get("ENVIRONMENT_TEST_KEY"), "property-value");
+            assertEquals(environment.get("PATH"), System.getenv("PATH"));
+
+            long version = environment.getVersion();
+            environment.setOverrides(mapOf(entry("ENVIRONMENT_TEST_KEY", "override-value")));
+            assertEquals(environment.get("ENVIRONMENT_TEST_KEY"), "override-value");
+            assertTrue(environment.getVersion() > version);
+
+            environment.setOverrides(null);
+            System.clearProperty("env.ENVIRONMENT_TEST_KEY");
+            // unchanged until refreshed
+            assertEquals(environment.get("ENVIRONMENT_TEST_KEY"), "property-value");
+            environment.refresh();
+            assertNull(environment.get("ENVIRONMENT_TEST_KEY"));
+        } finally {
+            System.clearProperty("env.ENVIRONMENT_TEST_KEY");
+        }
+    }
+
+    @Test
+    public void testCompiledKeywordsFollowRefresh() {
+        String template = "$(!ENV[ENVIRONMENT_COMPILED_KEY])";
+        Environment environment = Environment.getInstance();
+        try {
+            environment.setOverrides(mapOf(entry("ENVIRONMENT_COMPILED_KEY", "first")));
+            assertEquals(Placeholders.transformValue(template), "first");
+            environment.setOverrides(mapOf(entry("ENVIRONMENT_COMPILED_KEY", "second")));
+            assertEquals(Placeholders.transformValue(template), "second");
+        } finally {
+            environment.setOverrides(null);
+        }
+    }
+}
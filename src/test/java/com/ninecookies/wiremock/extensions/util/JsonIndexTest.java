@@ -0,0 +1,69 @@
+package com.ninecookies.wiremock.extensions.util;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class JsonIndexTest {
+
+    private static final String JSON = " { \"order\" : { \"id\": \"o-1\", \"items\": [ {\"name\": \"a \\\"b\\\" [c]\"},"
+            + " {\"name\": \"d\", \"count\": 2.50} ], \"empty\": {}, \"none\": null },"
+            + " \"list\": [], \"flag\": true, \"dup\": 1, \"dup\": 2 } ";
+
+    @DataProvider
+    private Object[][] pathsAndRawValues() {
+        return new Object[][] {
+                { "order.id", "\"o-1\"" },
+                { "order.items[0]", "{\"name\": \"a \\\"b\\\" [c]\"}" },
+                { "order.items[0].name", "\"a \\\"b\\\" [c]\"" },
+                { "order.items[1].count", "2.50" },
+                { "['order']['items'][1].name", "\"d\"" },
+                { "order.empty", "{}" },
+                { "order.none", "null" },
+                { "list", "[]" },
+                { "flag", "true" },
+                { "dup", "2" }
+        };
+    }
+
+    @Test(dataProvider = "pathsAndRawValues")
+    public void testFind(String path, String expected) {
+        assertEquals(JsonIndex.of(JSON).find(path), expected);
+    }
+
+    @Test
+    public void testFindMissingOrUnsupported() {
+        JsonIndex index = JsonIndex.of(JSON);
+        assertNull(index.find("order.unknown"));
+        assertNull(index.find("order.items[2]"));
+        assertNull(index.find("order.id.name"));
+        assertNull(index.find("list[0]"));
+        assertNull(index.find("order.items[*].name"));
+        assertNull(index.find("order..name"));
+        assertNull(index.find("order.items[-1]"));
+        assertNull(index.find("order.items[?(@.count)]"));
+        assertNull(index.find("order.items.length()"));
+        assertNull(index.find(""));
+    }
+
+    @Test
+    public void testFindInvalidDocument() {
+        assertNull(JsonIndex.of("{\"a\": {\"b\": 1").find("a.b"));
+        assertNull(JsonIndex.of("{\"a\" 1}").find("a"));
+        assertNull(JsonIndex.of("").find("a"));
+    }
+
+    @Test
+    public void testFindInvalidPrimitive() {
+        assertNull(JsonIndex.of("{\"a\": abc}").find("a"));
+        assertNull(JsonIndex.of("{\"a\": 01}").find("a"));
+        assertNull(JsonIndex.of("{\"a\": [1, tru]}").find("a[0]"));
+        JsonIndex index = JsonIndex.of("{\"a\": -1.5e3, \"b\": true, \"c\": null, \"d\": 0}");
+        assertEquals(index.find("a"), "-1.5e3");
+        assertEquals(index.find("b"), "true");
+        assertEquals(index.find("c"), "null");
+        assertEquals(index.find("d"), "0");
+    }
+}
@@ -2,15 +2,23 @@ package com.ninecookies.wiremock.extensions.util;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertThrows;
 import static org.testng.Assert.assertTrue;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import com.jayway.jsonpath.DocumentContext;
 import com.ninecookies.wiremock.extensions.util.Placeholder;
 import com.ninecookies.wiremock.extensions.util.Placeholders;
+import com.ninecookies.wiremock.extensions.util.Placeholders.JsonParser;
 
 public class PlaceholderTest {
 
@@ -50,4 +58,135 @@ public class PlaceholderTest {
         assertFalse(Placeholder.containsPattern(""));
         assertFalse(Placeholder.containsPattern(null));
     }
+
+    @Test
+    public void testPlaceholderOfToken() {
+        Placeholders.Token token = Placeholders.Token.find("bla $(blubb.items[?(@.x)]) blubber", 0);
+        Placeholder p = token.placeholder();
+        assertEquals(p.getPattern(), "$(blubb.items[?(@.x)])");
+        assertEquals(p.getPlaceholder(), "$(blubb.items[?(@.x)])");
+        // created once per token
+        assertSame(token.placeholder(), p);
+        assertEquals(p.getValue("{\"blubb\":{\"items\":[{\"x\":1},{\"y\":2}]}}").toString(), "[{\"x\":1}]");
+    }
+
+    @Test
+    public void testTokenize() {
+        String expression = "{\"a\":\"$(request.items[?(@.name == 'x)')].id)\",\n"
+                + "\"b\":\"id $(!Random[1,5]) $(unclosed\", \"c\":\"$(!Unknown)\", \"d\":\"$(!RandomId)\"}";
+        List<Placeholders.Token> tokens = Placeholders.tokenize(expression);
+        assertEquals(tokens.size(), 4);
+
+        Placeholders.Token path = tokens.get(0);
+        assertEquals(path.text, "$(request.items[?(@.name == 'x)')].id)");
+        assertEquals(path.start, expression.indexOf("$("));
+        assertEquals(path.end, path.start + path.text.length());
+        assertNull(path.keyword);
+
+        Placeholders.Token keyword = tokens.get(1);
+        assertEquals(keyword.text, "$(!Random[1,5])");
+        assertEquals(keyword.start, expression.indexOf("$(!Random"));
+        assertNotNull(keyword.keyword);
+        assertEquals(keyword.keyword.keyword(), "Random");
+        assertEquals(keyword.arguments, "[1,5]");
+
+        // unknown keywords are treated like paths
+        assertEquals(tokens.get(2).text, "$(!Unknown)");
+        assertNull(tokens.get(2).keyword);
+
+        // keywords with suffixes
+        assertEquals(tokens.get(3).keyword.keyword(), "Random");
+        assertEquals(tokens.get(3).arguments, "Id");
+    }
+
+    @Test
+    public void testFilterExpressionPlaceholder() {
+        String json = "{\"request\":{\"items\":[{\"x\":1,\"id\":\"a\"},{\"id\":\"b\"}]}}";
+        DocumentContext dc = Placeholders.documentContextOf(json);
+        String pattern = "ids: $(request.items[?(@.x)].id)";
+        Placeholder p = Placeholder.of(pattern);
+        assertEquals(p.getPlaceholder(), "$(request.items[?(@.x)].id)");
+        assertEquals(p.getSubstitute(dc), "ids: [\"a\"]");
+
+        Map<String, Object> placeholders = Placeholders.parsePlaceholders(pattern, dc);
+        assertEquals(placeholders.keySet().iterator().next(), "$(request.items[?(@.x)].id)");
+    }
+
+    @Test
+    public void testTransformJsonSlots() {
+        String json = "{\"request\":{\"name\":\"john \\\"jd\\\" doe\",\"age\":42,\"ratio\":0.5,\"admin\":false,"
+                + "\"address\":{\"city\":\"town\"}}}";
+        DocumentContext dc = Placeholders.documentContextOf(json);
+        String template = "{\"name\":\"$(request.name)\",\"age\":\"$(request.age)\",\"ratio\":\"$(request.ratio)\","
+                + "\"admin\":\"$(request.admin)\",\"missing\":\"$(request.missing)\","
+                + "\"address\":\"$(request.address)\",\"text\":\"$(request.age) years in $(request.address.city)\"}";
+        DocumentContext result = Placeholders.documentContextOf(Placeholders.transformJson(dc, template));
+        assertEquals(result.read("$.name"), "john \"jd\" doe");
+        assertEquals(result.read("$.age"), Integer.valueOf(42));
+        assertEquals(result.read("$.ratio"), Double.valueOf(0.5));
+        assertEquals(result.read("$.admin"), Boolean.FALSE);
+        assertNull(result.read("$.missing"));
+        assertEquals(result.read("$.address.city"), "town");
+        assertEquals(result.read("$.text"), "42 years in town");
+
+        assertEquals(Placeholders.transformJson(dc, "{\"without\":\"placeholders\"}"),
+                "{\"without\":\"placeholders\"}");
+    }
+
+    @Test
+    public void testTransformJsonCopiesRawValues() {
+        String json = "{\"order\": {\"id\": \"o-1\", \"total\": 2.50}, \"items\": [1, 2]}";
+        AtomicInteger parsed = new AtomicInteger();
+        String result = Placeholders.transformJson(JsonIndex.of(json), () -> {
+            parsed.incrementAndGet();
+            return Placeholders.documentContextOf(json);
+        }, "{\"data\":\"$(order)\",\"items\":\"$(items)\",\"again\":\"$(order)\",\"id\":\"$(!Random[5])\"}");
+        assertEquals(parsed.get(), 0);
+        assertTrue(result.startsWith("{\"data\":{\"id\": \"o-1\", \"total\": 2.50},\"items\":[1, 2],"
+                + "\"again\":{\"id\": \"o-1\", \"total\": 2.50},\"id\":"), result);
+
+        // embedded placeholders and paths not found in the index are resolved by the lazily parsed document
+        result = Placeholders.transformJson(JsonIndex.of(json), () -> {
+            parsed.incrementAndGet();
+            return Placeholders.documentContextOf(json);
+        }, "{\"text\":\"order $(order.id) of $(items.length())\",\"total\":\"$(order.total)\"}");
+        assertEquals(parsed.get(), 1);
+        assertEquals(result, "{\"text\":\"order o-1 of 2\",\"total\":2.50}");
+
+        // unquoted tokens are no valid JSON values and must not be copied verbatim
+        String lenient = "{\"a\": abc}";
+        result = Placeholders.transformJson(JsonIndex.of(lenient), () -> Placeholders.documentContextOf(lenient),
+                "{\"a\":\"$(a)\"}");
+        assertEquals(result, "{\"a\":\"abc\"}");
+    }
+
+    @DataProvider
+    private Object[][] jsonParsers() {
+        return new Object[][] { { JsonParser.JSON_SMART }, { JsonParser.JACKSON } };
+    }
+
+    @Test(dataProvider = "jsonParsers")
+    public void testJsonParsers(JsonParser parser) {
+        JsonParser original = Placeholders.getJsonParser();
+        Placeholders.setJsonParser(parser);
+        try {
+            String json = "{\"items\":[{\"x\":1,\"id\":\"a\"},{\"id\":\"b\",\"ratio\":0.5}],\"flag\":true}";
+            DocumentContext dc = Placeholders.documentContextOf(json).put("$", "urlParts", Lists.listOf("a", "b"));
+            String result = Placeholders.transformJson(dc, "{\"ids\":\"$(items[?(@.x)].id)\",\"ratio\":"
+                    + "\"$(items[1].ratio)\",\"flag\":\"$(flag)\",\"missing\":\"$(items[0].missing)\","
+                    + "\"url\":\"$(urlParts[1])\",\"count\":\"$(items.length())\"}");
+            assertEquals(result, "{\"ids\":[ \"a\" ],\"ratio\":0.5,\"flag\":true,\"missing\":null,\"url\":\"b\","
+                    + "\"count\":2}");
+        } finally {
+            Placeholders.setJsonParser(original);
+        }
+    }
+
+    @Test
+    public void testParseJsonParser() {
+        assertEquals(Placeholders.parseJsonParser(" jackson "), JsonParser.JACKSON);
+        assertEquals(Placeholders.parseJsonParser("JSON_SMART"), JsonParser.JSON_SMART);
+        assertEquals(Placeholders.parseJsonParser(null), JsonParser.JSON_SMART);
+        assertEquals(Placeholders.parseJsonParser("unknown"), JsonParser.JSON_SMART);
+    }
 }
@@ -4,12 +4,18 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.within;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertThrows;
 import static org.testng.Assert.assertTrue;
 
+import java.time.Clock;
 import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 import java.util.regex.Matcher;
 
@@ -72,6 +78,53 @@ public class PlaceholdersKeywordTest {
         assertEquals(transformedUrl, "http://localhost/modify/without?set=placeholders");
     }
 
+    @Test
+    public void testCompiledTemplatesAreCached() {
+        String template = "{\"id\":\"$(!UUID)\",\"count\":\"$(!Random[10,15])\",\"name\":\"$(request.name)\"}";
+        List<Placeholders.Token> tokens = Placeholders.compile(template);
+        assertSame(Placeholders.compile(template), tokens);
+        assertEquals(tokens.size(), 3);
+
+        Placeholders.Token random = tokens.get(1);
+        assertSame(random.invocation(), random.invocation());
+        for (int i = 0; i < 100; i++) {
+            assertThat((Integer) random.invocation().value()).isBetween(10, 15);
+        }
+
+        char[] filler = new char[Placeholders.MAX_CACHED_TEMPLATE_LENGTH];
+        Arrays.fill(filler, ' ');
+        String large = template + new String(filler);
+        assertNotSame(Placeholders.compile(large), Placeholders.compile(large));
+    }
+
+    @Test
+    public void testInvalidKeywordArgumentsFailOnCompile() {
+        assertThrows(IllegalArgumentException.class, () -> Placeholders.compile("{\"a\":\"$(!Random[7,6])\"}"));
+        assertThrows(IllegalArgumentException.class, () -> Placeholders.compile("$(!Instant.plus[x1])"));
+    }
+
+    @Test
+    public void testTimeKeywordsAreFormattedOncePerMillisecond() {
+        Instant now = Instant.parse("2021-12-01T10:00:00.123Z");
+        SimulatedClock clock = SimulatedClock.getInstance();
+        clock.setBase(Clock.fixed(now, ZoneOffset.UTC));
+        try {
+            Placeholders.Invocation instant = Keyword.of("Instant").invocation(".plus[m5]");
+            Object first = instant.value();
+            assertEquals(first, "2021-12-01T10:05:00.123Z");
+            assertSame(instant.value(), first);
+
+            Placeholders.Invocation offsetDateTime = Keyword.of("OffsetDateTime").invocation("");
+            assertEquals(offsetDateTime.value(), "2021-12-01T10:00:00.123Z");
+            assertEquals(Keyword.of("Timestamp").invocation(".plus[s-1]").value(), now.toEpochMilli() - 1_000);
+
+            clock.setBase(Clock.fixed(now.plusMillis(1), ZoneOffset.UTC));
+            assertEquals(instant.value(), "2021-12-01T10:05:00.124Z");
+        } finally {
+            clock.setBase(Clock.systemDefaultZone());
+        }
+    }
+
     @Test
     public void testUUIDPattern() {
         Matcher isKey = Placeholders.KEYWORD_PATTERN.matcher("$(!UUID)");
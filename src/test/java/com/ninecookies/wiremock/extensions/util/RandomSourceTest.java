@@ -0,0 +1,66 @@
+package com.ninecookies.wiremock.extensions.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.testng.annotations.Test;
+
+import com.ninecookies.wiremock.extensions.util.RandomSource.UuidMode;
+
+public class RandomSourceTest {
+
+    @Test
+    public void testFastUuid() {
+        RandomSource source = new RandomSource();
+        source.setUuidMode(UuidMode.FAST);
+        String first = source.nextUuid();
+        UUID uuid = UUID.fromString(first);
+        assertEquals(uuid.version(), 4);
+        assertEquals(uuid.variant(), 2);
+        assertNotEquals(source.nextUuid(), first);
+    }
+
+    @Test
+    public void testSeededValuesAreReproducible() {
+        RandomSource first = new RandomSource();
+        RandomSource second = new RandomSource();
+        first.setSeed(42L);
+        second.setSeed(42L);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(second.nextInt(), first.nextInt());
+            assertEquals(second.nextInt(100), first.nextInt(100));
+            assertEquals(second.nextUuid(), first.nextUuid());
+        }
+        assertEquals(UUID.fromString(first.nextUuid()).version(), 4);
+
+        first.setSeed(null);
+        assertThat(first.nextInt(5)).isBetween(0, 4);
+    }
+
+    @Test
+    public void testEnvironmentSettings() {
+        Map<String, String> overrides = new HashMap<>();
+        overrides.put("UUID_MODE", "fast");
+        overrides.put("RANDOM_SEED", "42");
+        Environment environment = new Environment();
+        environment.setOverrides(overrides);
+        RandomSource configured = RandomSource.of(environment);
+        assertEquals(configured.getUuidMode(), UuidMode.FAST);
+        RandomSource seeded = new RandomSource();
+        seeded.setSeed(42L);
+        assertEquals(configured.nextUuid(), seeded.nextUuid());
+
+        // invalid settings fall back to the defaults
+        overrides.put("UUID_MODE", "unknown");
+        overrides.put("RANDOM_SEED", "not-a-number");
+        environment.setOverrides(overrides);
+        configured = RandomSource.of(environment);
+        assertEquals(configured.getUuidMode(), UuidMode.SECURE);
+        assertNotEquals(configured.nextUuid(), seeded.nextUuid());
+    }
+}
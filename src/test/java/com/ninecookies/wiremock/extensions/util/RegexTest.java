@@ -0,0 +1,56 @@
+package com.ninecookies.wiremock.extensions.util;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.testng.annotations.Test;
+
+import com.ninecookies.wiremock.extensions.util.Regex.MatchTimeoutException;
+import com.ninecookies.wiremock.extensions.util.Regex.TimeoutCharSequence;
+
+public class RegexTest {
+
+    @Test
+    public void testNestedQuantifiers() {
+        assertTrue(Regex.hasNestedQuantifier("(a+)+"));
+        assertTrue(Regex.hasNestedQuantifier("(\\d*\\.)*"));
+        assertTrue(Regex.hasNestedQuantifier("((a+)b)*"));
+        assertTrue(Regex.hasNestedQuantifier("(?:\\w+\\s?){2,}"));
+    }
+
+    @Test
+    public void testBoundedPatterns() {
+        assertFalse(Regex.hasNestedQuantifier(".*T\\d{2}:1\\d{1}:\\d{2}\\..*"));
+        assertFalse(Regex.hasNestedQuantifier("(a|b)*"));
+        assertFalse(Regex.hasNestedQuantifier("(\\d{2}:)*"));
+        assertFalse(Regex.hasNestedQuantifier("([+*])+"));
+        assertFalse(Regex.hasNestedQuantifier("(\\+)+"));
+    }
+
+    @Test
+    public void testMatchesWithinBudget() {
+        Pattern pattern = Pattern.compile(".*T10:\\d{2}:\\d{2}\\..*");
+        assertTrue(Regex.matches(pattern, "2021-12-01T10:00:00.123Z", TimeUnit.MILLISECONDS.toNanos(100)));
+        assertFalse(Regex.matches(pattern, "2021-12-01T11:00:00.123Z", 0));
+    }
+
+    @Test
+    public void testMatchExceedsBudget() {
+        // independent of the regex engine - the deadline passed before the first access
+        String input = String.join("", Collections.nCopies(2 * TimeoutCharSequence.CHECK_INTERVAL, "a"));
+        CharSequence sequence = new TimeoutCharSequence(input, System.nanoTime() - 1);
+        for (int i = 1; i < TimeoutCharSequence.CHECK_INTERVAL; i++) {
+            assertEquals(sequence.charAt(i), 'a');
+        }
+        assertThrows(MatchTimeoutException.class, () -> sequence.charAt(0));
+        CharSequence subSequence = sequence.subSequence(0, input.length());
+        assertThrows(MatchTimeoutException.class,
+                () -> Pattern.compile("a*").matcher(subSequence).matches());
+    }
+}
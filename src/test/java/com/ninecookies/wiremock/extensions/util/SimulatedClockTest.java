@@ -0,0 +1,41 @@
+package com.ninecookies.wiremock.extensions.util;
+
+import static org.testng.Assert.assertEquals;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.testng.annotations.Test;
+
+public class SimulatedClockTest {
+
+    private static final Instant NOW = Instant.parse("2021-12-01T10:00:00Z");
+
+    @Test
+    public void testAdvance() {
+        SimulatedClock clock = new SimulatedClock(Clock.fixed(NOW, ZoneOffset.UTC));
+        assertEquals(clock.instant(), NOW);
+        clock.advance(Duration.ofHours(1));
+        assertEquals(clock.instant(), NOW.plusSeconds(3_600));
+        assertEquals(clock.millis(), NOW.toEpochMilli() + 3_600_000);
+        assertEquals(clock.getOffset(), 3_600_000);
+        clock.reset();
+        assertEquals(clock.instant(), NOW);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testAdvanceNegative() {
+        new SimulatedClock(Clock.systemUTC()).advance(Duration.ofSeconds(-1));
+    }
+
+    @Test
+    public void testWithZoneKeepsOffset() {
+        SimulatedClock clock = new SimulatedClock(Clock.fixed(NOW, ZoneOffset.UTC));
+        clock.advance(Duration.ofMinutes(1));
+        Clock zoned = clock.withZone(ZoneOffset.ofHours(2));
+        assertEquals(zoned.getZone(), ZoneOffset.ofHours(2));
+        assertEquals(zoned.instant(), NOW.plusSeconds(60));
+    }
+}
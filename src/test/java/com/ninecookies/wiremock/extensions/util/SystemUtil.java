@@ -14,7 +14,8 @@ public class SystemUtil {
     private static Map<String, String> modifiableEnv = null;
 
     /**
-     * Set the specified key and value to the systems environment to inject test values.
+     * Set the specified key and value to the systems environment to inject test values and refreshes the
+     * {@link Environment} snapshot.
      *
      * @param key the key to set.
      * @param value the value to set.
@@ -34,6 +35,7 @@ public class SystemUtil {
                 }
             }
             modifiableEnv.put(key, value);
+            Environment.getInstance().refresh();
         } catch (Exception e) {
             throw new IllegalStateException(e);
         }